@@ -0,0 +1,55 @@
+package com.deadsimplegui.bench;
+
+/**
+ * The `Documents` class exists to generate the representative HTML documents that the benchmarks
+ * render. Every row of a generated document holds a link, an image and some text, and the head
+ * holds the META and SCRIPT elements that the renderer removes.
+ */
+public final class Documents {
+
+  private Documents() {
+  }
+
+  /**
+   * The `ofSize` function generates a document of at least the supplied length.
+   *
+   * @param length of the document in characters.
+   * @param images whether the rows hold an image.
+   * @return the document's HTML.
+   */
+  public static String ofSize(int length, boolean images) {
+    StringBuilder html = new StringBuilder(length + 1024);
+    html.append("<html><head><meta charset=\"utf-8\"><meta name=\"viewport\" content=\"width=device-width\">")
+        .append("<title>Benchmark</title><script type=\"text/javascript\">var rows = [];</script></head>")
+        .append("<body><h1>Orders</h1><table>");
+    for (int row = 0; html.length() < length; row++) {
+      html.append("<tr><td><a href=\"/orders/").append(row).append("\">Order ").append(row).append("</a></td>");
+      if (images) {
+        html.append("<td><img src=\"/icons/").append(row % 16).append(".png\" width=\"16\" height=\"16\"></td>");
+      }
+      html.append("<td>Lorem ipsum dolor sit amet, consectetur adipiscing elit.</td>");
+      if (row % 100 == 0) {
+        html.append("<script>rows.push(").append(row).append(");</script>");
+      }
+      html.append("</tr>");
+    }
+    return html.append("</table></body></html>").toString();
+  }
+
+  /**
+   * The `table` function generates a document holding a table with the supplied number of rows,
+   * whose cells are identified as `cell-0`, `cell-1` and so on.
+   *
+   * @param rows of the table.
+   * @return the document's HTML.
+   */
+  public static String table(int rows) {
+    StringBuilder html = new StringBuilder(rows * 48);
+    html.append("<html><body><div id=\"status\"><p>Loaded</p></div><table>");
+    for (int row = 0; row < rows; row++) {
+      html.append("<tr><td id=\"cell-").append(row).append("\">").append(row).append("</td></tr>");
+    }
+    return html.append("</table></body></html>").toString();
+  }
+
+}
@@ -0,0 +1,19 @@
+package com.deadsimplegui.bench.pages;
+
+import com.deadsimplegui.bench.Documents;
+import com.deadsimplegui.util.resource.Memoize;
+import com.deadsimplegui.util.resource.Page;
+import com.deadsimplegui.util.resource.UrlBinding;
+import java.util.Map;
+
+@Scanned
+@Memoize(keys = "rows")
+@UrlBinding("/bench/memoized")
+public class MemoizedPage implements Page {
+
+  @Override
+  public String getHtml(Map<String, String> params) {
+    return Documents.table(Integer.parseInt(params.getOrDefault("rows", "100")));
+  }
+
+}
@@ -0,0 +1,17 @@
+package com.deadsimplegui.bench.pages;
+
+import com.deadsimplegui.util.resource.Page;
+import com.deadsimplegui.util.resource.PageScope;
+import com.deadsimplegui.util.resource.UrlBinding;
+import java.util.Map;
+
+@Scanned
+@UrlBinding(value = "/bench/orders/{id}/lines/{line}", scope = PageScope.SINGLETON)
+public class OrderLinePage implements Page {
+
+  @Override
+  public String getHtml(Map<String, String> params) {
+    return "<p>" + params.get("id") + "/" + params.get("line") + "</p>";
+  }
+
+}
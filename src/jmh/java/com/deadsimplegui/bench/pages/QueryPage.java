@@ -0,0 +1,16 @@
+package com.deadsimplegui.bench.pages;
+
+import com.deadsimplegui.util.resource.Page;
+import com.deadsimplegui.util.resource.UrlBinding;
+import java.util.Map;
+
+@Scanned
+@UrlBinding("/bench/query")
+public class QueryPage implements Page {
+
+  @Override
+  public String getHtml(Map<String, String> params) {
+    return "<p>" + params.size() + "</p>";
+  }
+
+}
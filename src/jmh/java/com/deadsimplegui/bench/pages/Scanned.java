@@ -0,0 +1,12 @@
+package com.deadsimplegui.bench.pages;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+/**
+ * The `Scanned` annotation exists to mark the benchmark pages with an annotation that no route
+ * index covers, so that finding them requires scanning their package.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Scanned {
+}
@@ -0,0 +1,17 @@
+package com.deadsimplegui.bench.pages;
+
+import com.deadsimplegui.bench.Documents;
+import com.deadsimplegui.util.resource.Page;
+import com.deadsimplegui.util.resource.UrlBinding;
+import java.util.Map;
+
+@Scanned
+@UrlBinding("/bench/table")
+public class TablePage implements Page {
+
+  @Override
+  public String getHtml(Map<String, String> params) {
+    return Documents.table(Integer.parseInt(params.getOrDefault("rows", "100")));
+  }
+
+}
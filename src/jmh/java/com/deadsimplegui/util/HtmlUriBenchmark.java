@@ -0,0 +1,52 @@
+package com.deadsimplegui.util;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The `HtmlUriBenchmark` measures resolving a link of a page through `HtmlUri.getInstance`, which
+ * is paid for every hyperlink followed and every image of a page. Each kind of link takes its own
+ * path through the resolution: absolute, protocol-relative, root-relative, a fragment and relative,
+ * each resolved within a page whose path is a directory and a page whose path is a file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+public class HtmlUriBenchmark {
+
+  @Param({
+      "http://example.com/images/logo.png",
+      "//cdn.example.com/images/logo.png",
+      "/images/logo.png",
+      "#section-2",
+      "images/logo.png"
+  })
+  public String link;
+
+  @Param({"http://example.com:8080/docs/guide/", "http://example.com:8080/docs/guide/index.html"})
+  public String page;
+
+  private HtmlPage html;
+
+  @Setup
+  public void setUp() {
+    html = new HtmlPage(URI.create(page), null);
+  }
+
+  @Benchmark
+  public URI getInstance() throws URISyntaxException {
+    return HtmlUri.getInstance(link, html).getUri();
+  }
+
+}
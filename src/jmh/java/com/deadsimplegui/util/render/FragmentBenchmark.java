@@ -0,0 +1,58 @@
+package com.deadsimplegui.util.render;
+
+import com.deadsimplegui.bench.Documents;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+import javax.swing.text.BadLocationException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The `FragmentBenchmark` compares rendering a 5,000 row table again in its entirety to updating
+ * one of its cells and its status through fragments, the way `DefaultHtmlRenderer` applies the
+ * fragments of a `FragmentPage` to the displayed document.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+public class FragmentBenchmark {
+  private static final int ROWS = 5000;
+  private final EditableHtmlEditorKit htmlKit = new EditableHtmlEditorKit();
+  private String html;
+  private EditableHtmlDocument displayed;
+  private long updates;
+
+  @Setup
+  public void setUp() throws IOException, BadLocationException {
+    html = Documents.table(ROWS);
+    displayed = parse();
+  }
+
+  @Benchmark
+  public EditableHtmlDocument fullRender() throws IOException, BadLocationException {
+    return parse();
+  }
+
+  @Benchmark
+  public EditableHtmlDocument fragmentUpdate() throws IOException, BadLocationException {
+    long update = updates++;
+    displayed.setInnerHTML(displayed.getElement("cell-" + (update % ROWS)), "<b>" + update + "</b>");
+    displayed.setInnerHTML(displayed.getElement("status"), "<p>Updated " + update + "</p>");
+    return displayed;
+  }
+
+  private EditableHtmlDocument parse() throws IOException, BadLocationException {
+    EditableHtmlDocument htmlDoc = (EditableHtmlDocument) htmlKit.createDefaultDocument();
+    htmlKit.read(new SanitizingReader(new StringReader(html)), htmlDoc, 0);
+    return htmlDoc;
+  }
+
+}
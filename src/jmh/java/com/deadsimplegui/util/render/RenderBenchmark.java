@@ -0,0 +1,65 @@
+package com.deadsimplegui.util.render;
+
+import com.deadsimplegui.bench.Documents;
+import com.deadsimplegui.util.Gui;
+import com.deadsimplegui.util.HtmlPage;
+import com.deadsimplegui.util.resource.BlockResourceLogic;
+import com.deadsimplegui.util.resource.ResourceContent;
+import com.deadsimplegui.util.resource.ResourceLogic;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import javax.swing.text.BadLocationException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The `RenderBenchmark` measures rendering a page end to end through `DefaultHtmlRenderer.execute`,
+ * which sanitizes the page, parses it and proxies its links and images, for small, medium and
+ * 10 MB documents with and without images. The GUI is never launched, so nothing is displayed and
+ * the images resolve to the broken image once and are then found in the image cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+public class RenderBenchmark {
+  private static final URI URI_ = URI.create("http://example.com/orders/index.html");
+
+  @Param({"16384", "1048576", "10485760"})
+  public int length;
+
+  @Param({"true", "false"})
+  public boolean images;
+
+  private Gui gui;
+  private ResourceLogic resourceLogic;
+  private final DefaultHtmlRenderer renderer = new DefaultHtmlRenderer();
+
+  @Setup
+  public void setUp() {
+    byte[] html = Documents.ofSize(length, images).getBytes(StandardCharsets.UTF_8);
+    resourceLogic = new BlockResourceLogic() {
+      @Override
+      public ResourceContent open(URI uri) {
+        return ResourceContent.of(html);
+      }
+    };
+    gui = Gui.getInstance(null, URI_, new BlockResourceLogic(), new BlockResourceLogic());
+  }
+
+  @Benchmark
+  public Gui execute() throws IOException, BadLocationException {
+    renderer.execute(new HtmlPage(URI_, resourceLogic), gui);
+    return gui;
+  }
+
+}
@@ -0,0 +1,57 @@
+package com.deadsimplegui.util.render;
+
+import com.deadsimplegui.bench.Documents;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The `SanitizingBenchmark` measures removing the SCRIPT and META elements of a document with the
+ * `SanitizingReader`, against reading the same document without sanitizing it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+public class SanitizingBenchmark {
+
+  @Param({"16384", "1048576", "10485760"})
+  public int length;
+
+  private String html;
+  private final char[] buffer = new char[8192];
+
+  @Setup
+  public void setUp() {
+    html = Documents.ofSize(length, true);
+  }
+
+  @Benchmark
+  public long read() throws IOException {
+    return drain(new StringReader(html));
+  }
+
+  @Benchmark
+  public long sanitize() throws IOException {
+    return drain(new SanitizingReader(new StringReader(html)));
+  }
+
+  private long drain(Reader reader) throws IOException {
+    long total = 0;
+    for (int read = reader.read(buffer); read != -1; read = reader.read(buffer)) {
+      total += read;
+    }
+    return total;
+  }
+
+}
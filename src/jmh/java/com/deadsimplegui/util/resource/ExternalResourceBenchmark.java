@@ -0,0 +1,97 @@
+package com.deadsimplegui.util.resource;
+
+import com.deadsimplegui.bench.Documents;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * The `ExternalResourceBenchmark` measures requesting a page through `ExternalResourceLogic` from
+ * an HTTP server running within the benchmark, with and without gzip compression, so that the
+ * network does not affect the results. The `baseline` benchmark requests the same page the way the
+ * loader did before it read responses in bulk, one character at a time and without compression.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+public class ExternalResourceBenchmark {
+
+  @Param({"65536", "1048576"})
+  public int length;
+
+  @Param({"true", "false"})
+  public boolean gzip;
+
+  private HttpServer server;
+  private URI uri;
+  private ExternalResourceLogic resourceLogic;
+
+  @Setup
+  public void setUp() throws IOException {
+    byte[] body = Documents.ofSize(length, true).getBytes(StandardCharsets.UTF_8);
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+    try (GZIPOutputStream outputStream = new GZIPOutputStream(compressed)) {
+      outputStream.write(body);
+    }
+    byte[] gzipped = compressed.toByteArray();
+    server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    server.createContext("/page", exchange -> {
+      String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+      boolean compress = gzip && acceptEncoding != null && acceptEncoding.contains("gzip");
+      byte[] response = compress ? gzipped : body;
+      exchange.getResponseHeaders().set("Content-Type", "text/html; charset=UTF-8");
+      if (compress) {
+        exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+      }
+      exchange.sendResponseHeaders(200, response.length);
+      try (OutputStream outputStream = exchange.getResponseBody()) {
+        outputStream.write(response);
+      }
+    });
+    server.start();
+    uri = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/page");
+    resourceLogic = new ExternalResourceLogic();
+  }
+
+  @TearDown
+  public void tearDown() {
+    server.stop(0);
+  }
+
+  @Benchmark
+  public byte[] get() {
+    return resourceLogic.get(uri);
+  }
+
+  @Benchmark
+  public byte[] baseline() throws IOException {
+    StringBuilder html = new StringBuilder();
+    try (Reader reader = new InputStreamReader(uri.toURL().openStream())) {
+      for(int data; (data = reader.read()) != -1;) {
+        html.append((char)data);
+      }
+    }
+    return html.toString().getBytes();
+  }
+
+}
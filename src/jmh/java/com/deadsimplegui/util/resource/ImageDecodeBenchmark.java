@@ -0,0 +1,55 @@
+package com.deadsimplegui.util.resource;
+
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import javax.imageio.ImageIO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The `ImageDecodeBenchmark` measures decoding a 4000x3000 JPEG at its full resolution and at the
+ * resolution of the slot it is displayed in. Run it with `-prof gc` to compare the memory allocated
+ * by each decode.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+public class ImageDecodeBenchmark {
+
+  @Param({"0", "64", "640"})
+  public int slot;
+
+  private byte[] jpeg;
+
+  @Setup
+  public void setUp() throws IOException {
+    BufferedImage image = new BufferedImage(4000, 3000, BufferedImage.TYPE_INT_RGB);
+    Graphics2D graphics = image.createGraphics();
+    graphics.setPaint(new GradientPaint(0, 0, Color.RED, 4000, 3000, Color.BLUE));
+    graphics.fillRect(0, 0, 4000, 3000);
+    graphics.dispose();
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    ImageIO.write(image, "jpg", outputStream);
+    jpeg = outputStream.toByteArray();
+  }
+
+  @Benchmark
+  public BufferedImage decode() throws IOException {
+    return ImageDecoder.decode(new ByteArrayInputStream(jpeg), slot, slot);
+  }
+
+}
@@ -0,0 +1,57 @@
+package com.deadsimplegui.util.resource;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The `InternalResourceBenchmark` measures requesting internal pages through `InternalResourceLogic`,
+ * including parsing the query of the requested URI, and compares rendering a 1,000 row table on
+ * every request to returning the rendering kept for a `Memoize` page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+public class InternalResourceBenchmark {
+  private static final URI QUERY = URI.create(
+      "http://localhost/bench/query?page=3&sort=name&filter=open%20orders&from=2020-01-01&to=2020-12-31");
+  private static final URI ROUTED = URI.create("http://localhost/bench/orders/42/lines/7?expand=true");
+  private static final URI TABLE = URI.create("http://localhost/bench/table?rows=1000");
+  private static final URI MEMOIZED = URI.create("http://localhost/bench/memoized?rows=1000");
+  private InternalResourceLogic resourceLogic;
+
+  @Setup
+  public void setUp() {
+    AnnotationScanner.registerPackage("com.deadsimplegui.bench.pages", UrlBinding.class);
+    resourceLogic = new InternalResourceLogic();
+  }
+
+  @Benchmark
+  public byte[] getWithQuery() {
+    return resourceLogic.get(QUERY);
+  }
+
+  @Benchmark
+  public byte[] getWithTemplate() {
+    return resourceLogic.get(ROUTED);
+  }
+
+  @Benchmark
+  public byte[] getTable() {
+    return resourceLogic.get(TABLE);
+  }
+
+  @Benchmark
+  public byte[] getMemoizedTable() {
+    return resourceLogic.get(MEMOIZED);
+  }
+
+}
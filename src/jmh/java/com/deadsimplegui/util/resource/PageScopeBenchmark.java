@@ -0,0 +1,45 @@
+package com.deadsimplegui.util.resource;
+
+import com.deadsimplegui.bench.pages.QueryPage;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The `PageScopeBenchmark` measures obtaining and returning the page that handles a navigation in
+ * each `PageScope`.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+public class PageScopeBenchmark {
+
+  @Param({"REQUEST", "SINGLETON", "WINDOW", "POOLED"})
+  public PageScope scope;
+
+  private PageFactory pageFactory;
+  private final Map<Class<? extends Page>, Page> windowPages = new ConcurrentHashMap<>();
+
+  @Setup
+  public void setUp() {
+    pageFactory = new PageFactory("/bench/query", QueryPage.class, scope, 8);
+  }
+
+  @Benchmark
+  public Object acquireAndRelease() {
+    Page page = pageFactory.acquire(windowPages);
+    pageFactory.release(page);
+    return page;
+  }
+
+}
@@ -0,0 +1,65 @@
+package com.deadsimplegui.util.resource;
+
+import com.deadsimplegui.bench.pages.QueryPage;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The `RoutingBenchmark` measures resolving a path to its page, both through `PageScanner` for the
+ * registered benchmark pages and through a route trie holding 10,000 routes, half of which are
+ * templates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+public class RoutingBenchmark {
+  private static final int ROUTES = 10000;
+  private RouteTrie routes;
+
+  @Setup
+  public void setUp() {
+    AnnotationScanner.registerPackage("com.deadsimplegui.bench.pages", UrlBinding.class);
+    PageScanner.getRoutes(UrlBinding.class);
+    routes = new RouteTrie();
+    for (int i = 0; i < ROUTES / 2; i++) {
+      String exact = "/section" + i + "/items";
+      String template = "/section" + i + "/items/{id}/lines/{line}";
+      routes.add(exact, new PageFactory(exact, QueryPage.class, PageScope.REQUEST, 1));
+      routes.add(template, new PageFactory(template, QueryPage.class, PageScope.REQUEST, 1));
+    }
+  }
+
+  @Benchmark
+  public Object pageScannerFind() {
+    return PageScanner.find("/bench/query", UrlBinding.class);
+  }
+
+  @Benchmark
+  public Object pageScannerFindTemplate() {
+    return PageScanner.findRoute("/bench/orders/42/lines/7", UrlBinding.class);
+  }
+
+  @Benchmark
+  public Object trieExact() {
+    return routes.find("/section4321/items");
+  }
+
+  @Benchmark
+  public Object trieTemplate() {
+    return routes.find("/section4321/items/42/lines/7");
+  }
+
+  @Benchmark
+  public Object trieMiss() {
+    return routes.find("/section4321/missing");
+  }
+
+}
@@ -0,0 +1,57 @@
+package com.deadsimplegui.util.resource;
+
+import com.deadsimplegui.bench.pages.Scanned;
+import java.io.File;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The `ScanningBenchmark` measures finding the pages of a package through `getClasses`, which is
+ * paid once per package on startup. The `index` source reads the route index generated at compile
+ * time, the `scan` source reads every class file of the package and the `scanCached` source reuses
+ * the results of a previous scan from the scan cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+public class ScanningBenchmark {
+  private static final String PACKAGE = "com.deadsimplegui.bench.pages";
+
+  @Param({"index", "scan", "scanCached"})
+  public String source;
+
+  private Constructor<AnnotationScanner> constructor;
+  private Class<? extends Annotation> annotation;
+
+  @Setup
+  public void setUp() throws Exception {
+    constructor = AnnotationScanner.class.getDeclaredConstructor(String.class, Class.class);
+    constructor.setAccessible(true);
+    annotation = "index".equals(source) ? UrlBinding.class : Scanned.class;
+    File cacheDirectory = "scanCached".equals(source)
+        ? Files.createTempDirectory("deadsimplegui-scan").toFile()
+        : null;
+    AnnotationScanner.setCacheDirectory(cacheDirectory);
+    if (cacheDirectory != null) {
+      constructor.newInstance(PACKAGE, annotation).getClasses();
+    }
+  }
+
+  @Benchmark
+  public Object getClasses() throws Exception {
+    return constructor.newInstance(PACKAGE, annotation).getClasses();
+  }
+
+}
@@ -0,0 +1,85 @@
+package com.deadsimplegui.util.template;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The `TemplateBenchmark` compares rendering a table through a `Template`, which escapes every
+ * value, to building the same table by hand with a `StringBuilder` the way pages have been written
+ * so far, without escaping anything.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+public class TemplateBenchmark {
+  private static final String SOURCE = "<h1>{{title}}</h1><table>{{#rows}}<tr><td><a href=\"/orders/{{id}}\">"
+      + "{{id}}</a></td><td>{{customer}}</td><td>{{total}}</td></tr>{{/rows}}</table>"
+      + "{{^rows}}<p>No orders</p>{{/rows}}";
+
+  @Param({"100", "5000"})
+  public int rows;
+
+  private final Template template = Template.compile(SOURCE);
+  private Map<String, Object> context;
+  private final StringBuilder buffer = new StringBuilder();
+
+  @Setup
+  public void setUp() {
+    List<Map<String, Object>> orders = new ArrayList<>();
+    for (int i = 0; i < rows; i++) {
+      Map<String, Object> order = new HashMap<>();
+      order.put("id", i);
+      order.put("customer", "Customer & Sons <" + i + ">");
+      order.put("total", "$" + (i * 7 % 1000) + ".00");
+      orders.add(order);
+    }
+    context = new HashMap<>();
+    context.put("title", "Orders");
+    context.put("rows", orders);
+  }
+
+  @Benchmark
+  public String template() {
+    return template.render(context);
+  }
+
+  @Benchmark
+  public StringBuilder templateIntoBuffer() throws IOException {
+    buffer.setLength(0);
+    template.render(context, buffer);
+    return buffer;
+  }
+
+  @Benchmark
+  @SuppressWarnings("unchecked")
+  public String stringBuilder() {
+    StringBuilder html = new StringBuilder();
+    html.append("<h1>").append(context.get("title")).append("</h1><table>");
+    List<Map<String, Object>> orders = (List<Map<String, Object>>) context.get("rows");
+    for (Map<String, Object> order : orders) {
+      html.append("<tr><td><a href=\"/orders/").append(order.get("id")).append("\">")
+          .append(order.get("id")).append("</a></td><td>").append(order.get("customer"))
+          .append("</td><td>").append(order.get("total")).append("</td></tr>");
+    }
+    html.append("</table>");
+    if (orders.isEmpty()) {
+      html.append("<p>No orders</p>");
+    }
+    return html.toString();
+  }
+
+}
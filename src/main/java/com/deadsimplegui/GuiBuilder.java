@@ -1,11 +1,14 @@
 package com.deadsimplegui;
 
 import com.deadsimplegui.util.Gui;
+import com.deadsimplegui.util.render.DocumentCache;
 import com.deadsimplegui.util.resource.AnnotationScanner;
 import com.deadsimplegui.util.resource.ExternalResourceLogic;
 import com.deadsimplegui.util.resource.InternalResourceLogic;
+import com.deadsimplegui.util.resource.PageScanner;
 import com.deadsimplegui.util.resource.ResourceLogic;
 import com.deadsimplegui.util.resource.UrlBinding;
+import java.io.File;
 import java.net.URI;
 import java.util.Arrays;
 
@@ -15,6 +18,10 @@ public class GuiBuilder {
   private URI homePage;
   private ResourceLogic externalResourceLogic = new ExternalResourceLogic();
   private ResourceLogic internalResourceLogic = new InternalResourceLogic();
+  private long imageCacheBytes = Gui.DEFAULT_IMAGE_CACHE_BYTES;
+  private boolean prefetch;
+  private int maxCachedDocuments;
+  private long maxCachedDocumentLength;
 
   private GuiBuilder() {
     try {
@@ -28,6 +35,15 @@ public class GuiBuilder {
     return new GuiBuilder();
   }
 
+  /**
+   * The `registerPackages` function registers the packages to find `UrlBinding` pages in. The
+   * pages are found when the GUI is built, see the `build` function, through the route index
+   * generated at compile time by the `UrlBindingProcessor` when one exists for a package, otherwise
+   * by scanning the package.
+   *
+   * @param packageNames to find `UrlBinding` pages in.
+   * @return this builder.
+   */
   public GuiBuilder registerPackages(String... packageNames) {
     Arrays
         .stream(packageNames)
@@ -35,6 +51,19 @@ public class GuiBuilder {
     return this;
   }
 
+  /**
+   * The `setScanCacheDirectory` function changes the directory that the results of scanning the
+   * registered packages are cached in between launches. The cache is only used for packages that
+   * are not covered by a route index and is stored in the user's cache directory by default.
+   *
+   * @param cacheDirectory to cache the scan results in, or null to disable the cache.
+   * @return this builder.
+   */
+  public GuiBuilder setScanCacheDirectory(File cacheDirectory) {
+    AnnotationScanner.setCacheDirectory(cacheDirectory);
+    return this;
+  }
+
   public GuiBuilder setTitle(String title) {
     this.title = title;
     return this;
@@ -45,6 +74,14 @@ public class GuiBuilder {
     return this;
   }
 
+  /**
+   * The `setExternalResourceLogic` function replaces the logic used to retrieve resources whose
+   * host is not `localhost`. Wrap an `ExternalResourceLogic` in a `CachingResourceLogic` to cache
+   * external resources on disk.
+   *
+   * @param resourceLogic to retrieve external resources with.
+   * @return this builder.
+   */
   public GuiBuilder setExternalResourceLogic(ResourceLogic resourceLogic) {
     this.externalResourceLogic = resourceLogic;
     return this;
@@ -55,8 +92,67 @@ public class GuiBuilder {
     return this;
   }
 
+  /**
+   * The `setImageCacheSize` function bounds the memory used by the images cached by the GUI. The
+   * least recently used images are evicted once the bound is exceeded, except for the images on
+   * the page being displayed.
+   *
+   * @param maxBytes the maximum estimated memory used by the decoded pixels of the cached images.
+   * @return this builder.
+   */
+  public GuiBuilder setImageCacheSize(long maxBytes) {
+    this.imageCacheBytes = maxBytes;
+    return this;
+  }
+
+  /**
+   * The `setPrefetch` function enables requesting the page behind a link as soon as the mouse
+   * enters the link, so that it is ready by the time the link is clicked. Prefetching is disabled
+   * by default. Internal pages are only prefetched when their `UrlBinding` enables prefetching.
+   *
+   * @param prefetch true to prefetch hovered links.
+   * @return this builder.
+   */
+  public GuiBuilder setPrefetch(boolean prefetch) {
+    this.prefetch = prefetch;
+    return this;
+  }
+
+  /**
+   * The `setDocumentCacheSize` function enables keeping the documents of recently displayed pages
+   * so that revisiting a page, including through the back and forward navigation, displays it
+   * without rendering it again. Documents are not cached by default. Internal pages whose
+   * `UrlBinding` disables caching are never cached.
+   *
+   * @param maxDocuments the maximum number of documents cached.
+   * @param maxLength the maximum total length of the text of the documents cached.
+   * @return this builder.
+   */
+  public GuiBuilder setDocumentCacheSize(int maxDocuments, long maxLength) {
+    this.maxCachedDocuments = maxDocuments;
+    this.maxCachedDocumentLength = maxLength;
+    return this;
+  }
+
+  /**
+   * The `build` function builds the GUI. The route table for the registered packages is built here
+   * so that conflicting `UrlBinding` values are reported before the GUI is launched.
+   *
+   * @return the built GUI.
+   * @throws RuntimeException when more than one page is bound to the same path.
+   */
   public Gui build() {
-    return Gui.getInstance(title, homePage, externalResourceLogic, internalResourceLogic);
+    PageScanner.getRoutes(UrlBinding.class);
+    Gui gui = Gui.getInstance(
+        title,
+        homePage,
+        externalResourceLogic,
+        internalResourceLogic,
+        imageCacheBytes
+    );
+    gui.setPrefetch(prefetch);
+    gui.setDocumentCache(new DocumentCache(maxCachedDocuments, maxCachedDocumentLength));
+    return gui;
   }
 
 }
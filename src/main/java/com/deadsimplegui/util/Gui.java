@@ -1,15 +1,43 @@
 package com.deadsimplegui.util;
 
+import java.awt.BorderLayout;
+import java.awt.Cursor;
 import java.awt.Image;
+import java.awt.Point;
+import java.awt.event.ActionEvent;
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.IOException;
 import java.net.URI;
 import java.net.URL;
-import java.util.Dictionary;
+import java.util.Collection;
 import java.util.HashMap;
-import java.util.Hashtable;
-import java.util.Stack;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
 import javax.swing.*;
+import javax.swing.text.Document;
+import javax.swing.text.SimpleAttributeSet;
+import javax.swing.text.html.HTML;
+import javax.swing.text.html.HTMLDocument;
 import javax.swing.text.html.HTMLEditorKit;
+import com.deadsimplegui.util.metrics.Counter;
+import com.deadsimplegui.util.metrics.Metrics;
+import com.deadsimplegui.util.metrics.Timer;
 import com.deadsimplegui.util.render.DefaultHtmlRenderer;
+import com.deadsimplegui.util.render.DocumentCache;
+import com.deadsimplegui.util.render.EditableHtmlEditorKit;
+import com.deadsimplegui.util.render.ImageCache;
+import com.deadsimplegui.util.render.ImageLoader;
+import com.deadsimplegui.util.resource.ResourceContent;
 import com.deadsimplegui.util.resource.ResourceLogic;
 
 /**
@@ -29,6 +57,19 @@ import com.deadsimplegui.util.resource.ResourceLogic;
  * the image's path then a broken image icon will be rendered instead. When an image has a hostname
  * other than localhost it will be considered an external resource and will be retrieved from the
  * internet before rendering.
+ *
+ * Pages are retrieved and rendered on a background thread so that the window remains responsive
+ * while a page loads. Only the finished document is handed to the Swing event dispatch thread to be
+ * displayed, and a navigation that is superseded by a newer one is cancelled and never displayed.
+ * Pages are rendered one at a time, and the HTML being read by a superseded navigation is closed so
+ * that its render stops as soon as possible rather than holding up the newer navigation.
+ *
+ * The displayed pages are recorded in a memory-bounded history which can be navigated with the
+ * `back` and `forward` functions, or with the Alt+Left and Alt+Right keys.
+ *
+ * The time spent in each stage of a navigation is recorded, see `Metrics`, and can be inspected
+ * through JMX or at the built-in `http://localhost/_diagnostics` page. The memory held by the
+ * caches and histories is reported as the sum over every launched window until it is closed.
  */
 public class Gui {
   private final String title;
@@ -36,19 +77,53 @@ public class Gui {
   private final ResourceLogic externalResourceLogic;
   private final ResourceLogic internalResourceLogic;
   private JEditorPane editor;
-  private Stack<HtmlPage> history = new Stack<>();
-  private static final Dictionary<URL, Image> IMAGE_CACHE = new Hashtable<>();
+  private JScrollPane scrollPane;
+  private JProgressBar loadingIndicator;
+  private final History history = new History();
+  private final AtomicLong navigations = new AtomicLong();
+  private final ThreadLocal<Navigation> navigation = new ThreadLocal<>();
+  private final ExecutorService navigationExecutor = Executors.newSingleThreadExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "deadsimplegui-navigation");
+    thread.setDaemon(true);
+    return thread;
+  });
+  private final ExecutorService cancelExecutor = Executors.newSingleThreadExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "deadsimplegui-navigation-cancel");
+    thread.setDaemon(true);
+    return thread;
+  });
+  private Future<?> pendingNavigation;
+  private volatile Navigation latest;
+  private volatile Prefetcher prefetcher;
+  private volatile DocumentCache documentCache = new DocumentCache(0, 0);
+  private final ImageCache imageCache;
+  private final ImageLoader imageLoader = new ImageLoader(this);
+  public static final long DEFAULT_IMAGE_CACHE_BYTES = 64L * 1024 * 1024;
+  private static final Timer NAVIGATION = Metrics.timer("gui.navigation");
+  private static final Timer DISPLAY = Metrics.timer("gui.display");
+  private static final Counter SUPERSEDED = Metrics.counter("gui.navigation.superseded");
+  private static final Counter PREFETCH_HITS = Metrics.counter("prefetch.hit");
+  private static final Counter PREFETCH_MISSES = Metrics.counter("prefetch.miss");
+  private static final Set<Gui> LAUNCHED = ConcurrentHashMap.newKeySet();
+
+  static {
+    Metrics.gauge("imageCache.bytes", () -> sumOf(gui -> gui.imageCache.getTotalBytes()));
+    Metrics.gauge("documentCache.documents", () -> sumOf(gui -> gui.documentCache.size()));
+    Metrics.gauge("history.bytes", () -> sumOf(gui -> gui.history.getBytes()));
+  }
 
   private Gui(
       String title,
       URI homePage,
       ResourceLogic externalResourceLogic,
-      ResourceLogic internalResourceLogic
+      ResourceLogic internalResourceLogic,
+      long imageCacheBytes
   ) {
     this.title = title;
     this.homePage = homePage;
     this.externalResourceLogic = externalResourceLogic;
     this.internalResourceLogic = internalResourceLogic;
+    this.imageCache = new ImageCache(imageCacheBytes);
   }
 
   public static Gui getInstance(
@@ -56,7 +131,33 @@ public class Gui {
       URI homePage,
       ResourceLogic externalResourceLogic,
       ResourceLogic internalResourceLogic) {
-    return new Gui(title, homePage, externalResourceLogic, internalResourceLogic);
+    return getInstance(
+        title,
+        homePage,
+        externalResourceLogic,
+        internalResourceLogic,
+        DEFAULT_IMAGE_CACHE_BYTES
+    );
+  }
+
+  /**
+   * The `getInstance` static class constructor.
+   *
+   * @param title of the GUI window.
+   * @param homePage to render when the GUI is launched.
+   * @param externalResourceLogic to retrieve resources whose host is not `localhost` with.
+   * @param internalResourceLogic to retrieve resources whose host is `localhost` with.
+   * @param imageCacheBytes the maximum estimated memory used by the decoded pixels of the images
+   *                        cached by this GUI.
+   * @return a newly constructed GUI.
+   */
+  public static Gui getInstance(
+      String title,
+      URI homePage,
+      ResourceLogic externalResourceLogic,
+      ResourceLogic internalResourceLogic,
+      long imageCacheBytes) {
+    return new Gui(title, homePage, externalResourceLogic, internalResourceLogic, imageCacheBytes);
   }
 
   /**
@@ -64,19 +165,53 @@ public class Gui {
    * a GUI window from the configured instance's settings.
    */
   public void launch() {
+    Metrics.registerMBean();
     editor = new JEditorPane();
-    editor.setContentType("text/html");
+    editor.setEditorKit(new EditableHtmlEditorKit());
     editor.setEditable(false);
     ((HTMLEditorKit) editor.getEditorKit()).setAutoFormSubmission(false);
     editor.addHyperlinkListener(event -> GuiLinkListener.load(this, event, externalResourceLogic, internalResourceLogic));
 
     //add ability to scroll
     JScrollPane scrollbar = new JScrollPane(editor);
+    scrollPane = scrollbar;
     JFrame jFrame = new JFrame();
     jFrame.add(scrollbar);
 
+    //navigate the history with Alt+Left and Alt+Right
+    InputMap inputMap = jFrame.getRootPane().getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW);
+    ActionMap actionMap = jFrame.getRootPane().getActionMap();
+    inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_LEFT, InputEvent.ALT_DOWN_MASK), "back");
+    inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_RIGHT, InputEvent.ALT_DOWN_MASK), "forward");
+    actionMap.put("back", new AbstractAction() {
+      @Override
+      public void actionPerformed(ActionEvent event) {
+        back();
+      }
+    });
+    actionMap.put("forward", new AbstractAction() {
+      @Override
+      public void actionPerformed(ActionEvent event) {
+        forward();
+      }
+    });
+
+    //show that a page is loading
+    loadingIndicator = new JProgressBar();
+    loadingIndicator.setIndeterminate(true);
+    loadingIndicator.setVisible(false);
+    jFrame.add(loadingIndicator, BorderLayout.SOUTH);
+
     //make sure the program exits when the frame closes
     jFrame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+    //only report the memory held by the windows that are displayed
+    LAUNCHED.add(this);
+    jFrame.addWindowListener(new WindowAdapter() {
+      @Override
+      public void windowClosed(WindowEvent event) {
+        LAUNCHED.remove(Gui.this);
+      }
+    });
     //This will center the JFrame in the middle of the screen
     jFrame.setLocationRelativeTo(null);
     jFrame.setExtendedState(JFrame.MAXIMIZED_BOTH);
@@ -88,27 +223,335 @@ public class Gui {
   }
 
   /**
-   * The `executeRender` function will render the supplied HTML in this GUI instance.
+   * The `executeRender` function will render the supplied HTML in this GUI instance. The HTML is
+   * retrieved and rendered on a background thread, cancelling any navigation that is still in
+   * progress, and a loading indicator is displayed until the rendered document is displayed.
    *
    * @param html to render.
    */
   void executeRender(HtmlPage html) {
+    navigate(new Navigation(navigations.incrementAndGet(), html, null));
+  }
+
+  /**
+   * The `back` function displays the previous page in the history, scrolled to the position it was
+   * left at. The page's HTML is only requested again when it has been discarded from the history.
+   */
+  public void back() {
+    go(-1);
+  }
+
+  /**
+   * The `forward` function displays the next page in the history, scrolled to the position it was
+   * left at. The page's HTML is only requested again when it has been discarded from the history.
+   */
+  public void forward() {
+    go(1);
+  }
+
+  private void go(int offset) {
+    if (!SwingUtilities.isEventDispatchThread()) {
+      SwingUtilities.invokeLater(() -> go(offset));
+      return;
+    }
+    Navigation pending = latest;
+    History.Entry entry = history.go(
+        pending != null && !pending.done ? pending.entry : null,
+        offset
+    );
+    if (entry != null) {
+      navigate(new Navigation(navigations.incrementAndGet(), entry.toPage(), entry));
+    }
+  }
+
+  private static long sumOf(ToLongFunction<Gui> value) {
+    return LAUNCHED.stream().mapToLong(value).sum();
+  }
+
+  private Point getScroll() {
+    return scrollPane != null ? scrollPane.getViewport().getViewPosition() : null;
+  }
+
+  private void navigate(Navigation next) {
+    Navigation previous = latest;
+    latest = next;
+    if (previous != null) {
+      cancel(previous);
+    }
+    imageLoader.cancel();
+    showLoading(true);
+    synchronized (navigationExecutor) {
+      if (pendingNavigation != null) {
+        //never interrupt a page while it renders, a superseded render is stopped by closing its HTML.
+        pendingNavigation.cancel(false);
+      }
+      pendingNavigation = navigationExecutor.submit(() -> render(next));
+    }
+  }
+
+  /**
+   * The `cancel` function cancels the supplied navigation and closes the HTML its render is reading,
+   * so that the render fails on its next read. The HTML is closed on another thread, as closing a
+   * response may wait for the read in progress to complete.
+   */
+  private void cancel(Navigation superseded) {
+    ResourceContent content = superseded.cancel();
+    if (content != null) {
+      cancelExecutor.execute(() -> {
+        try {
+          content.close();
+        } catch (IOException e) {
+          //swallow
+        }
+      });
+    }
+  }
+
+  /**
+   * The `open` function opens the HTML of the supplied page being rendered on the calling thread,
+   * so that the HTML is closed when the page's navigation is superseded while it is being read.
+   *
+   * @param page being rendered.
+   * @return the page's HTML, which must be closed by the caller.
+   * @throws IOException when the page's navigation has already been superseded.
+   */
+  public ResourceContent open(HtmlPage page) throws IOException {
+    ResourceContent content = page.open();
+    Navigation current = navigation.get();
+    if (current != null && !current.track(content)) {
+      content.close();
+      throw new IOException("The navigation to " + page.getUri() + " has been superseded");
+    }
+    return content;
+  }
+
+  /**
+   * The `isCancelled` function determines whether the navigation of the page being rendered on the
+   * calling thread has been superseded, in which case the page should stop being rendered.
+   *
+   * @return true when the page will never be displayed.
+   */
+  public boolean isCancelled() {
+    Navigation current = navigation.get();
+    return current != null && current.cancelled;
+  }
+
+  /**
+   * The `setPrefetch` function enables or disables requesting the page behind a link as soon as the
+   * mouse enters the link, so that it is ready by the time the link is clicked.
+   *
+   * @param prefetch true to prefetch hovered links.
+   */
+  public void setPrefetch(boolean prefetch) {
+    this.prefetcher = prefetch ? new Prefetcher() : null;
+  }
+
+  /**
+   * The `setDocumentCache` function replaces the cache that the documents of the displayed pages
+   * are kept in, so that revisiting a page displays its document without rendering it again.
+   *
+   * @param documentCache to keep the documents in.
+   */
+  public void setDocumentCache(DocumentCache documentCache) {
+    this.documentCache = documentCache;
+  }
+
+  /**
+   * The `getDocumentCache` function returns the cache that the documents of the displayed pages are
+   * kept in. Its `invalidate` functions must be called when the content of a cached page changes.
+   *
+   * @return the document cache.
+   */
+  public DocumentCache getDocumentCache() {
+    return documentCache;
+  }
+
+  /**
+   * The `prefetch` function starts requesting the page at the supplied URI in the background when
+   * prefetching is enabled.
+   *
+   * @param uri of the page to prefetch.
+   */
+  void prefetch(URI uri) {
+    Prefetcher current = prefetcher;
+    if (current != null) {
+      current.prefetch(uri, "localhost".equals(uri.getHost()) ? internalResourceLogic : externalResourceLogic);
+    }
+  }
+
+  /**
+   * The `getPage` function returns the page at the supplied URI, reusing the page prefetched for
+   * the URI when there is one.
+   *
+   * @param uri of the page.
+   * @param resourceLogic to request the page with when it has not been prefetched.
+   * @return the page.
+   */
+  HtmlPage getPage(URI uri, ResourceLogic resourceLogic) {
+    Prefetcher current = prefetcher;
+    HtmlPage page = current != null ? current.take(uri) : null;
+    if (current != null) {
+      (page != null ? PREFETCH_HITS : PREFETCH_MISSES).increment();
+    }
+    return page != null ? page : new HtmlPage(uri, resourceLogic);
+  }
+
+  /**
+   * The `render` function renders the supplied navigation's HTML on the calling thread. If the
+   * HTML cannot be rendered an error page is rendered in its place.
+   */
+  private void render(Navigation next) {
+    navigation.set(next);
     try {
-      history.push(html);
-      new DefaultHtmlRenderer().execute(html, this);
+      new DefaultHtmlRenderer().execute(next.page, this);
     } catch(Exception ex1) {
+      if (next.cancelled) {
+        //the failure was caused by superseding the navigation, and is never displayed anyway.
+        return;
+      }
       try {
-        HtmlPage errorHtml = new HtmlPage(new GuiError(ex1.getLocalizedMessage(), ex1));
+        HtmlPage errorHtml = new HtmlPage(
+            new GuiError(ex1.getLocalizedMessage(), ex1),
+            internalResourceLogic
+        );
         new DefaultHtmlRenderer().execute(errorHtml, this);
       } catch(Exception ex2) {
         //This should never happen.
-        editor.setText(new GuiError(ex2.getLocalizedMessage(), ex2).getHtml(new HashMap<>()));
+        setText(new GuiError(ex2.getLocalizedMessage(), ex2).getHtml(new HashMap<>()));
       }
+    } finally {
+      navigation.remove();
+      next.done = true;
+      if (next.id == navigations.get()) {
+        showLoading(false);
+      } else {
+        SUPERSEDED.increment();
+      }
+      NAVIGATION.record(System.nanoTime() - next.started);
     }
   }
 
+  /**
+   * The `setText` function displays the supplied HTML. When called while a page is being rendered
+   * the HTML is only displayed if no newer navigation has started since, and the page is then
+   * recorded in the history or, when navigating the history, scrolled to the position it was left
+   * at. The HTML is always displayed on the event dispatch thread.
+   *
+   * @param html to display.
+   */
   public void setText(String html) {
-    editor.setText(html);
+    display(() -> {
+      editor.getDocument().putProperty("imageCache", imageCache);
+      editor.setText(html);
+    });
+  }
+
+  /**
+   * The `setDocument` function displays the supplied parsed document, without parsing it again.
+   * Like the `setText` function, when called while a page is being rendered the document is only
+   * displayed if no newer navigation has started since. The document is always displayed on the
+   * event dispatch thread.
+   *
+   * @param document to display.
+   */
+  public void setDocument(Document document) {
+    document.putProperty("imageCache", imageCache);
+    display(() -> editor.setDocument(document));
+  }
+
+  /**
+   * The `isDisplaying` function determines whether the page being rendered on the calling thread
+   * is the page that is displayed, ignoring the query and fragment of their URIs. Only pages that
+   * are navigated to, rather than navigated back or forward to, are considered, so that navigating
+   * the history always displays the recorded page.
+   *
+   * @param page being rendered.
+   * @return true when the page may update the displayed document in place.
+   */
+  public boolean isDisplaying(HtmlPage page) {
+    Navigation current = navigation.get();
+    HtmlPage displayed = history.current();
+    if (current == null || !current.record || displayed == null
+        || page.getUri() == null || displayed.getUri() == null) {
+      return false;
+    }
+    URI uri = page.getUri();
+    URI displayedUri = displayed.getUri();
+    return Objects.equals(uri.getScheme(), displayedUri.getScheme())
+        && Objects.equals(uri.getHost(), displayedUri.getHost())
+        && uri.getPort() == displayedUri.getPort()
+        && Objects.equals(uri.getPath(), displayedUri.getPath());
+  }
+
+  /**
+   * The `updateDocument` function applies the supplied update to the displayed document in place,
+   * keeping the position it is scrolled to. Like the `setDocument` function, when called while a
+   * page is being rendered the update is only applied if no newer navigation has started since.
+   * The update is always applied on the event dispatch thread, and the displayed page's recorded
+   * HTML and cached document are discarded as they no longer match the document.
+   *
+   * @param update to apply to the displayed document.
+   */
+  public void updateDocument(Consumer<Document> update) {
+    Navigation current = navigation.get();
+    SwingUtilities.invokeLater(() -> {
+      if (editor != null && (current == null || current.id == navigations.get())) {
+        HtmlPage displayed = history.current();
+        if (displayed != null && displayed.getUri() != null) {
+          documentCache.invalidate(displayed.getUri());
+        }
+        history.discardCurrent();
+        update.accept(editor.getDocument());
+      }
+    });
+  }
+
+  private void display(Runnable display) {
+    Navigation current = navigation.get();
+    SwingUtilities.invokeLater(() -> {
+      if (editor == null) {
+        //the GUI has not been launched, such as while benchmarking, so there is nothing to display
+        return;
+      }
+      if (current == null) {
+        timed(display);
+      } else if (current.id == navigations.get()) {
+        Point left = getScroll();
+        timed(display);
+        if (current.record) {
+          history.setScroll(left);
+          history.push(current.page);
+        } else {
+          history.moveTo(current.entry, left);
+        }
+        Point scroll = current.scroll != null ? current.scroll : new Point(0, 0);
+        SwingUtilities.invokeLater(() -> {
+          if (scrollPane != null && current.id == navigations.get()) {
+            scrollPane.getViewport().setViewPosition(scroll);
+          }
+        });
+      }
+    });
+  }
+
+  private static void timed(Runnable display) {
+    long start = System.nanoTime();
+    display.run();
+    DISPLAY.record(System.nanoTime() - start);
+  }
+
+  /**
+   * The `showLoading` function shows or hides the loading indicator.
+   */
+  private void showLoading(boolean loading) {
+    SwingUtilities.invokeLater(() -> {
+      if (loadingIndicator != null) {
+        loadingIndicator.setVisible(loading);
+      }
+      if (editor != null) {
+        editor.setCursor(Cursor.getPredefinedCursor(loading ? Cursor.WAIT_CURSOR : Cursor.DEFAULT_CURSOR));
+      }
+    });
   }
 
   public ResourceLogic getExternalResourceLogic() {
@@ -120,18 +563,104 @@ public class Gui {
   }
 
   public void putImage(URL url, Image image) {
-    if (editor.getDocument().getProperty("imageCache") == null) {
-      editor.getDocument().putProperty("imageCache", IMAGE_CACHE);
+    imageCache.put(url, image);
+  }
+
+  public Image getImage(URL url) {
+    return imageCache.get(url);
+  }
+
+  /**
+   * The `pinImages` function protects the supplied images from being evicted from this GUI's image
+   * cache for as long as the document referencing them is displayed.
+   *
+   * @param urls of the images referenced by the document being displayed.
+   */
+  public void pinImages(Collection<URL> urls) {
+    imageCache.pin(urls);
+  }
+
+  /**
+   * The `refreshImage` function redisplays every image in the displayed document that references
+   * the supplied URL, so that an image replaced in this GUI's image cache is shown. This must be
+   * called on the event dispatch thread.
+   *
+   * @param url of the replaced image.
+   */
+  public void refreshImage(URL url) {
+    if (editor == null) {
+      return;
+    }
+    Document document = editor.getDocument();
+    if (!(document instanceof HTMLDocument)) {
+      return;
+    }
+    HTMLDocument htmlDoc = (HTMLDocument) document;
+    String src = url.toString();
+    for (HTMLDocument.Iterator iterator = htmlDoc.getIterator(HTML.Tag.IMG); iterator.isValid(); iterator.next()) {
+      if (src.equals(iterator.getAttributes().getAttribute(HTML.Attribute.SRC))) {
+        int offset = iterator.getStartOffset();
+        htmlDoc.setCharacterAttributes(
+            offset,
+            iterator.getEndOffset() - offset,
+            new SimpleAttributeSet(iterator.getAttributes()),
+            false
+        );
+      }
     }
-    IMAGE_CACHE.put(url, image);
+  }
+
+  public ImageLoader getImageLoader() {
+    return imageLoader;
   }
 
   public long getImageCacheSize() {
-    return IMAGE_CACHE.size();
+    return imageCache.size();
   }
 
   HtmlPage getCurrent() {
-    return history.peek();
+    return history.current();
+  }
+
+  /**
+   * The `Navigation` class exists to identify a page being rendered, so that a page whose
+   * navigation has been superseded is never displayed. A navigation through the history carries
+   * the entry it navigates to, which only becomes the current page once it has been displayed. The
+   * HTML being read for the navigation is tracked so that it can be closed once it is cancelled.
+   */
+  private static class Navigation {
+    private final long id;
+    private final HtmlPage page;
+    private final boolean record;
+    private final History.Entry entry;
+    private final Point scroll;
+    private final long started = System.nanoTime();
+    private volatile boolean done;
+    private volatile boolean cancelled;
+    private ResourceContent content;
+
+    private Navigation(long id, HtmlPage page, History.Entry entry) {
+      this.id = id;
+      this.page = page;
+      this.record = entry == null;
+      this.entry = entry;
+      this.scroll = entry != null ? entry.getScroll() : null;
+    }
+
+    private synchronized boolean track(ResourceContent content) {
+      if (cancelled) {
+        return false;
+      }
+      this.content = content;
+      return true;
+    }
+
+    private synchronized ResourceContent cancel() {
+      cancelled = true;
+      ResourceContent opened = content;
+      content = null;
+      return opened;
+    }
   }
 
 }
@@ -15,11 +15,16 @@ import com.deadsimplegui.util.resource.ResourceLogic;
 
 /**
  * The `GuiLinkListener` class exists to provide a well-defined process for what happens when a
- * hyperlink is clicked on in the GUI.
+ * hyperlink is clicked on in the GUI. When prefetching is enabled the page behind a hyperlink is
+ * requested as soon as the mouse enters the hyperlink.
  */
 class GuiLinkListener {
 
   static void load(Gui gui, HyperlinkEvent event, ResourceLogic externalResourceLogic, ResourceLogic internalResourceLogic) {
+    if (event.getEventType() == HyperlinkEvent.EventType.ENTERED) {
+      prefetch(gui, event);
+      return;
+    }
     if (event.getEventType() != HyperlinkEvent.EventType.ACTIVATED) {
       return;
     }
@@ -27,11 +32,11 @@ class GuiLinkListener {
     try {
       guiUri = HtmlUri.getInstance(URLDecoder.decode(event.getURL().getQuery().substring("url=".length()), Charset.defaultCharset().toString()), gui.getCurrent());
     } catch (UnsupportedEncodingException | URISyntaxException e) {
-      gui.executeRender(new HtmlPage(new GuiError(e.getLocalizedMessage(), e)));
+      gui.executeRender(new HtmlPage(new GuiError(e.getLocalizedMessage(), e), internalResourceLogic));
       return;
     }
     if(!guiUri.getHost().equals("localhost")) {
-      HtmlPage history = new HtmlPage(guiUri.getUri(), externalResourceLogic);
+      HtmlPage history = gui.getPage(guiUri.getUri(), externalResourceLogic);
       gui.executeRender(history);
       return;
     }
@@ -54,9 +59,29 @@ class GuiLinkListener {
     } catch (Exception e){
       //swallow, no params
     }
+    if (!(event instanceof FormSubmitEvent)) {
+      gui.executeRender(gui.getPage(guiUri.getUri(), internalResourceLogic));
+      return;
+    }
     load(gui, internalResourceLogic, guiUri.getUri());
   }
 
+  /**
+   * The `prefetch` function starts requesting the page behind the hyperlink the mouse entered.
+   * Forms are never prefetched, and a hyperlink that cannot be resolved is ignored.
+   */
+  private static void prefetch(Gui gui, HyperlinkEvent event) {
+    if (event instanceof FormSubmitEvent || event.getURL() == null || event.getURL().getQuery() == null) {
+      return;
+    }
+    try {
+      HtmlUri guiUri = HtmlUri.getInstance(URLDecoder.decode(event.getURL().getQuery().substring("url=".length()), Charset.defaultCharset().toString()), gui.getCurrent());
+      gui.prefetch(guiUri.getUri());
+    } catch (Exception e) {
+      //swallow, the hyperlink will be resolved again when clicked
+    }
+  }
+
   static void load(Gui gui, URI uri, ResourceLogic externalResourceLoader, ResourceLogic internalResourceLogic) {
     if (!uri.getHost().equals("localhost")) {
       gui.executeRender(new HtmlPage(uri, externalResourceLoader));
@@ -69,7 +94,7 @@ class GuiLinkListener {
     try {
       gui.executeRender(new HtmlPage(uri, internalResourceLogic));
     } catch (Exception e) {
-      gui.executeRender(new HtmlPage(new GuiError(e.getLocalizedMessage(), e)));
+      gui.executeRender(new HtmlPage(new GuiError(e.getLocalizedMessage(), e), internalResourceLogic));
     }
   }
 
@@ -0,0 +1,278 @@
+package com.deadsimplegui.util;
+
+import java.awt.Point;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * The `History` class exists to record the pages displayed by a GUI so that the user can navigate
+ * back and forward through them. The HTML of the pages is kept so that a page can be displayed
+ * again, at the position it was scrolled to, without requesting it again.
+ * <p>
+ * The memory held by the history is bounded. The HTML of the pages nearest to the current page is
+ * kept as is, the HTML of the pages further away is compressed, and once the bound is exceeded the
+ * HTML of the furthest pages is discarded so that they are requested again when displayed.
+ */
+class History {
+  private static final long DEFAULT_MAX_BYTES = 4L * 1024 * 1024;
+  private static final int DEFAULT_RAW_ENTRIES = 2;
+  private static final int MAX_ENTRIES = 256;
+  private final long maxBytes;
+  private final int rawEntries;
+  private final List<Entry> entries = new ArrayList<>();
+  private int index = -1;
+
+  History() {
+    this(DEFAULT_MAX_BYTES, DEFAULT_RAW_ENTRIES);
+  }
+
+  /**
+   * The `History` class constructor.
+   *
+   * @param maxBytes the maximum memory held by the HTML of the recorded pages.
+   * @param rawEntries the number of pages on either side of the current page whose HTML is kept
+   *                   uncompressed.
+   */
+  History(long maxBytes, int rawEntries) {
+    this.maxBytes = maxBytes;
+    this.rawEntries = rawEntries;
+  }
+
+  /**
+   * The `push` function records the supplied page as the current page, discarding the pages that
+   * could be navigated forward to.
+   *
+   * @param page that is displayed.
+   */
+  synchronized void push(HtmlPage page) {
+    entries.subList(index + 1, entries.size()).clear();
+    entries.add(new Entry(page, page.takeCaptured()));
+    if (entries.size() > MAX_ENTRIES) {
+      entries.remove(0);
+    }
+    index = entries.size() - 1;
+    compact();
+  }
+
+  /**
+   * The `current` function returns the current page.
+   *
+   * @return the current page, or null when no page has been displayed.
+   */
+  synchronized HtmlPage current() {
+    return index >= 0 ? entries.get(index).page : null;
+  }
+
+  /**
+   * The `go` function returns the entry the supplied number of pages back, when negative, or
+   * forward, when positive, from the supplied entry. The current page is not changed until the
+   * returned entry's page has been displayed, see the `moveTo` function.
+   *
+   * @param from the entry to move from, or null to move from the current page.
+   * @param offset the number of pages to move.
+   * @return the entry of the page to move to, or null when there is no such page.
+   */
+  synchronized Entry go(Entry from, int offset) {
+    int start = from != null ? entries.indexOf(from) : -1;
+    int target = (start >= 0 ? start : index) + offset;
+    if (index < 0 || target < 0 || target >= entries.size()) {
+      return null;
+    }
+    return entries.get(target);
+  }
+
+  /**
+   * The `moveTo` function makes the page of the supplied entry the current page once it has been
+   * displayed. The position the page being left was scrolled to is recorded. Nothing is changed
+   * when the entry is no longer recorded, such as when a newer page has been pushed since.
+   *
+   * @param entry of the displayed page.
+   * @param scroll the position the page being left is scrolled to.
+   */
+  synchronized void moveTo(Entry entry, Point scroll) {
+    int target = entries.indexOf(entry);
+    if (target < 0 || target == index) {
+      return;
+    }
+    if (index >= 0) {
+      entries.get(index).scroll = scroll;
+    }
+    index = target;
+    compact();
+  }
+
+  /**
+   * The `setScroll` function records the position the current page is scrolled to.
+   *
+   * @param scroll the position of the current page.
+   */
+  synchronized void setScroll(Point scroll) {
+    if (index >= 0) {
+      entries.get(index).scroll = scroll;
+    }
+  }
+
+  /**
+   * The `discardCurrent` function discards the recorded HTML of the current page, so that the page
+   * is requested again when it is navigated back or forward to. This is needed once the displayed
+   * page has been updated in place and its recorded HTML is stale.
+   */
+  synchronized void discardCurrent() {
+    if (index >= 0) {
+      entries.get(index).discard();
+    }
+  }
+
+  /**
+   * The `getBytes` function returns the memory held by the HTML of the recorded pages.
+   *
+   * @return the number of bytes.
+   */
+  synchronized long getBytes() {
+    long bytes = 0;
+    for (Entry entry : entries) {
+      bytes += entry.getBytes();
+    }
+    return bytes;
+  }
+
+  /**
+   * The `compact` function compresses the HTML of the pages that are not near the current page and
+   * then discards the HTML of the pages furthest from the current page until the memory held is
+   * within bounds.
+   */
+  private void compact() {
+    for (int i = 0; i < entries.size(); i++) {
+      if (Math.abs(i - index) > rawEntries) {
+        entries.get(i).compress();
+      }
+    }
+    long bytes = getBytes();
+    for (int distance = entries.size(); distance > 0 && bytes > maxBytes; distance--) {
+      for (int i : new int[] {index - distance, index + distance}) {
+        if (i >= 0 && i < entries.size() && bytes > maxBytes) {
+          bytes -= entries.get(i).getBytes();
+          entries.get(i).discard();
+        }
+      }
+    }
+  }
+
+  /**
+   * The `Entry` class exists to hold a recorded page along with its HTML, which is either raw,
+   * compressed or discarded.
+   */
+  static class Entry {
+    private final HtmlPage page;
+    private boolean pending;
+    private HtmlBody raw;
+    private HtmlBody compressed;
+    private int length;
+    private Point scroll;
+
+    private Entry(HtmlPage page, HtmlBody raw) {
+      this.page = page;
+      this.raw = raw;
+      this.pending = raw == null;
+    }
+
+    /**
+     * The `settle` function records the page's HTML once it has been captured, as a page that is
+     * displayed while it is still being read is recorded before its HTML is complete.
+     */
+    private void settle() {
+      if (pending) {
+        raw = page.takeCaptured();
+        pending = raw == null;
+      }
+    }
+
+    /**
+     * The position the page was scrolled to when it was left, or null.
+     */
+    Point getScroll() {
+      return scroll;
+    }
+
+    /**
+     * The `toPage` function returns a page that displays the recorded HTML, or requests the HTML
+     * again when it has been discarded.
+     */
+    synchronized HtmlPage toPage() {
+      settle();
+      if (raw != null) {
+        return new HtmlPage(page.getUri(), page.getResourceLogic(), raw);
+      }
+      if (compressed != null) {
+        HtmlBody body = inflate();
+        if (body != null) {
+          return new HtmlPage(page.getUri(), page.getResourceLogic(), body);
+        }
+      }
+      return page.isStatic() ? page : new HtmlPage(page.getUri(), page.getResourceLogic());
+    }
+
+    private synchronized long getBytes() {
+      settle();
+      if (raw != null) {
+        return raw.getBytes().length;
+      }
+      return compressed != null ? compressed.getBytes().length : 0;
+    }
+
+    private synchronized void compress() {
+      settle();
+      if (raw == null) {
+        return;
+      }
+      byte[] bytes = raw.getBytes();
+      Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+      try {
+        deflater.setInput(bytes);
+        deflater.finish();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, bytes.length / 4));
+        byte[] buffer = new byte[8192];
+        while (!deflater.finished()) {
+          out.write(buffer, 0, deflater.deflate(buffer));
+        }
+        compressed = new HtmlBody(out.toByteArray(), raw.getContentType(), raw.getCharset());
+        length = bytes.length;
+        raw = null;
+      } finally {
+        deflater.end();
+      }
+    }
+
+    private HtmlBody inflate() {
+      Inflater inflater = new Inflater();
+      try {
+        inflater.setInput(compressed.getBytes());
+        byte[] bytes = new byte[length];
+        int inflated = 0;
+        while (inflated < length && !inflater.finished()) {
+          int read = inflater.inflate(bytes, inflated, length - inflated);
+          if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+            return null;
+          }
+          inflated += read;
+        }
+        return new HtmlBody(bytes, compressed.getContentType(), compressed.getCharset());
+      } catch (DataFormatException e) {
+        return null;
+      } finally {
+        inflater.end();
+      }
+    }
+
+    private synchronized void discard() {
+      pending = false;
+      raw = null;
+      compressed = null;
+    }
+  }
+
+}
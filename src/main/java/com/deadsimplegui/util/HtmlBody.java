@@ -0,0 +1,125 @@
+package com.deadsimplegui.util;
+
+import com.deadsimplegui.util.resource.ResourceContent;
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * The `HtmlBody` class exists to hold a page's raw HTML in memory along with the metadata needed to
+ * decode it, so that the page can be displayed again without requesting it again.
+ */
+class HtmlBody {
+  private final byte[] bytes;
+  private final String contentType;
+  private final Charset charset;
+
+  HtmlBody(byte[] bytes, String contentType, Charset charset) {
+    this.bytes = bytes;
+    this.contentType = contentType;
+    this.charset = charset;
+  }
+
+  byte[] getBytes() {
+    return bytes;
+  }
+
+  String getContentType() {
+    return contentType;
+  }
+
+  Charset getCharset() {
+    return charset;
+  }
+
+  /**
+   * The `open` function streams the held HTML.
+   *
+   * @return the HTML, which must be closed by the caller.
+   */
+  ResourceContent open() {
+    return new ResourceContent(new ByteArrayInputStream(bytes), contentType, charset, bytes.length);
+  }
+
+  /**
+   * The `capture` function wraps the supplied content so that its body is captured as it is read.
+   * The captured body is handed to the supplied consumer once the content has been read to its end,
+   * unless the body turned out to be larger than the supplied limit.
+   *
+   * @param content to capture the body of.
+   * @param maxBytes the largest body to capture.
+   * @param consumer to hand the captured body to.
+   * @return the wrapped content.
+   */
+  static ResourceContent capture(
+      ResourceContent content,
+      int maxBytes,
+      Consumer<HtmlBody> consumer
+  ) {
+    InputStream capturing = new FilterInputStream(content.getInputStream()) {
+      private byte[] buffer = content.getContentLength() > maxBytes
+          ? null
+          : new byte[(int) Math.min(maxBytes, Math.max(content.getContentLength(), 8192))];
+      private int length;
+
+      @Override
+      public int read() throws IOException {
+        int read = super.read();
+        if (read == -1) {
+          finish();
+        } else {
+          append(new byte[] {(byte) read}, 0, 1);
+        }
+        return read;
+      }
+
+      @Override
+      public int read(byte[] b, int off, int len) throws IOException {
+        int read = super.read(b, off, len);
+        if (read == -1) {
+          finish();
+        } else {
+          append(b, off, read);
+        }
+        return read;
+      }
+
+      private void append(byte[] b, int off, int len) {
+        if (buffer == null) {
+          return;
+        }
+        if (length + len > maxBytes) {
+          buffer = null;
+          return;
+        }
+        if (length + len > buffer.length) {
+          buffer = Arrays.copyOf(buffer, Math.min(maxBytes, Math.max(length + len, buffer.length * 2)));
+        }
+        System.arraycopy(b, off, buffer, length, len);
+        length += len;
+      }
+
+      private void finish() {
+        if (buffer != null) {
+          consumer.accept(new HtmlBody(
+              Arrays.copyOf(buffer, length),
+              content.getContentType(),
+              content.getCharset()
+          ));
+          buffer = null;
+        }
+      }
+    };
+    return new ResourceContent(
+        capturing,
+        content.getContentType(),
+        content.getCharset(),
+        content.getContentLength()
+    );
+  }
+
+}
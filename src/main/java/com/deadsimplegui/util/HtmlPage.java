@@ -1,15 +1,28 @@
 package com.deadsimplegui.util;
 
+import com.deadsimplegui.util.metrics.Metrics;
+import com.deadsimplegui.util.metrics.Timer;
+import com.deadsimplegui.util.resource.Fragment;
 import com.deadsimplegui.util.resource.InternalResourceLogic;
+import com.deadsimplegui.util.resource.ResourceContent;
 import com.deadsimplegui.util.resource.ResourceLogic;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.HashMap;
+import java.util.List;
 
 public class HtmlPage {
+  private static final int MAX_CAPTURED_BYTES = 1024 * 1024;
+  private static final Timer OPEN = Metrics.timer("resource.open");
   private final URI uri;
   private final ResourceLogic resourceLogic;
   private byte[] html;
+  private HtmlBody buffered;
+  private volatile HtmlBody captured;
+  private boolean opened;
 
   public HtmlPage(URI uri, ResourceLogic resourceLogic) {
     this.resourceLogic = resourceLogic;
@@ -17,6 +30,17 @@ public class HtmlPage {
   }
 
   public HtmlPage(GuiError error) {
+    this(error, new InternalResourceLogic());
+  }
+
+  /**
+   * The `HtmlPage` class constructor for an error page displayed in a window, whose internal links
+   * are requested through the window's own resource logic so that they share its pages.
+   *
+   * @param error to display.
+   * @param resourceLogic of the window's internal resources.
+   */
+  public HtmlPage(GuiError error, ResourceLogic resourceLogic) {
     URI localHost = null;
     try{
       localHost = new URI("http://localhost/");
@@ -24,14 +48,127 @@ public class HtmlPage {
       //this will never happen.
     }
     this.uri = localHost;
-    this.resourceLogic = new InternalResourceLogic();
+    this.resourceLogic = resourceLogic;
     this.html = error.getHtml(new HashMap<>()).getBytes();
   }
 
+  /**
+   * The `HtmlPage` class constructor for a page whose HTML is already held in memory, such as a
+   * page restored from the history.
+   */
+  HtmlPage(URI uri, ResourceLogic resourceLogic, HtmlBody body) {
+    this(uri, resourceLogic);
+    this.buffered = body;
+  }
+
   public URI getUri() {
     return uri;
   }
 
+  ResourceLogic getResourceLogic() {
+    return resourceLogic;
+  }
+
+  /**
+   * The `open` function streams the page's HTML. Unlike the `getHtml` function the HTML is not
+   * retained by this page, so a large page is never held in memory in its entirety. When the page
+   * has been prefetched the prefetched HTML is returned instead of requesting it again.
+   * <p>
+   * A copy of HTML no larger than 1MB is captured as it is read so that it can be kept in the
+   * history, see the `takeCaptured` function.
+   *
+   * @return the page's HTML, which must be closed by the caller.
+   */
+  public synchronized ResourceContent open() {
+    opened = true;
+    if (html != null) {
+      return ResourceContent.of(html);
+    }
+    if (buffered != null) {
+      HtmlBody body = buffered;
+      buffered = null;
+      captured = body;
+      return body.open();
+    }
+    long start = System.nanoTime();
+    ResourceContent content = resourceLogic.open(uri);
+    OPEN.record(System.nanoTime() - start);
+    return HtmlBody.capture(content, MAX_CAPTURED_BYTES, body -> captured = body);
+  }
+
+  /**
+   * The `prefetch` function requests the page's HTML ahead of it being opened and holds it in
+   * memory until it is. Nothing is requested once the page has been opened. The request is
+   * abandoned as soon as the HTML is larger than the supplied budget, in which case the page is
+   * requested again when it is opened.
+   *
+   * @param maxBytes the most HTML that may be held in memory.
+   * @return the number of bytes prefetched, or -1 when the HTML was larger than the budget.
+   */
+  synchronized long prefetch(long maxBytes) {
+    if (opened || html != null || buffered != null) {
+      return 0;
+    }
+    try (ResourceContent content = resourceLogic.open(uri)) {
+      if (content.getContentLength() > maxBytes) {
+        return -1;
+      }
+      ByteArrayOutputStream body = new ByteArrayOutputStream();
+      try (InputStream in = content.getInputStream()) {
+        byte[] buffer = new byte[8192];
+        for (int read; (read = in.read(buffer)) != -1;) {
+          if (body.size() + read > maxBytes) {
+            return -1;
+          }
+          body.write(buffer, 0, read);
+        }
+      }
+      buffered = new HtmlBody(body.toByteArray(), content.getContentType(), content.getCharset());
+      return buffered.getBytes().length;
+    } catch (IOException e) {
+      throw new RuntimeException("Unable to prefetch " + uri, e);
+    }
+  }
+
+  /**
+   * The `takeCaptured` function returns the HTML captured the last time the page was opened and
+   * read to its end, and releases it from this page.
+   *
+   * @return the captured HTML, or null when none was captured.
+   */
+  HtmlBody takeCaptured() {
+    HtmlBody body = captured;
+    captured = null;
+    return body;
+  }
+
+  /**
+   * Whether the page's HTML is generated rather than requested, such as an error page.
+   */
+  boolean isStatic() {
+    return html != null;
+  }
+
+  /**
+   * The `isCacheable` function determines whether the document rendered from this page may be
+   * displayed again instead of rendering this page again.
+   *
+   * @return true when the rendered document may be reused.
+   */
+  public boolean isCacheable() {
+    return html == null && uri != null && resourceLogic.isCacheable(uri);
+  }
+
+  /**
+   * The `getFragments` function returns the updates to apply to this page while it is displayed,
+   * instead of rendering it again, see `FragmentPage`.
+   *
+   * @return the updates to apply, or null when the page must be rendered again.
+   */
+  public List<Fragment> getFragments() {
+    return html == null && uri != null ? resourceLogic.getFragments(uri) : null;
+  }
+
   public byte[] getHtml() {
     if (html == null) {
       html = resourceLogic.get(uri);
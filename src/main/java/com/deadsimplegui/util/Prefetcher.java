@@ -0,0 +1,149 @@
+package com.deadsimplegui.util;
+
+import com.deadsimplegui.util.resource.ResourceLogic;
+import java.net.URI;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * The `Prefetcher` class exists to request the page behind a hovered link before it is clicked.
+ * The mouse typically enters a link a few hundred milliseconds before it is clicked, which is often
+ * enough to have the page's HTML in memory by the time it is needed.
+ * <p>
+ * Prefetching is bounded both by the number of pages requested concurrently, beyond which hovered
+ * links are ignored, and by the memory held by prefetched pages, beyond which the oldest prefetched
+ * pages are discarded. A page larger than the whole memory budget is abandoned while it is being
+ * requested rather than after it has been read. A prefetched page that is not clicked within a
+ * short time is discarded so that a stale page is never displayed.
+ */
+class Prefetcher {
+  private static final int DEFAULT_CONCURRENCY = 2;
+  private static final long DEFAULT_MAX_BYTES = 8L * 1024 * 1024;
+  private static final long EXPIRY_MILLIS = 30000;
+  private final long maxBytes;
+  private final Semaphore permits;
+  private final ExecutorService executor;
+  private final LinkedHashMap<URI, Prefetch> prefetched = new LinkedHashMap<>();
+  private long totalBytes;
+
+  Prefetcher() {
+    this(DEFAULT_CONCURRENCY, DEFAULT_MAX_BYTES);
+  }
+
+  /**
+   * The `Prefetcher` class constructor.
+   *
+   * @param concurrency the maximum number of pages prefetched at the same time.
+   * @param maxBytes the maximum memory held by the prefetched pages.
+   */
+  Prefetcher(int concurrency, long maxBytes) {
+    this.maxBytes = maxBytes;
+    this.permits = new Semaphore(concurrency);
+    this.executor = Executors.newCachedThreadPool(runnable -> {
+      Thread thread = new Thread(runnable, "deadsimplegui-prefetch");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * The `prefetch` function starts requesting the page at the supplied URI in the background,
+   * unless the page has already been prefetched, may not be prefetched or the concurrency budget
+   * has been spent.
+   *
+   * @param uri of the page to prefetch.
+   * @param resourceLogic to request the page with.
+   */
+  void prefetch(URI uri, ResourceLogic resourceLogic) {
+    synchronized (this) {
+      Prefetch existing = prefetched.get(uri);
+      if (existing != null && !existing.isExpired()) {
+        return;
+      }
+    }
+    if (!resourceLogic.isPrefetchable(uri) || !permits.tryAcquire()) {
+      return;
+    }
+    Prefetch prefetch = new Prefetch(new HtmlPage(uri, resourceLogic));
+    synchronized (this) {
+      remove(uri);
+      prefetched.put(uri, prefetch);
+    }
+    executor.execute(() -> {
+      try {
+        long bytes = prefetch.page.prefetch(maxBytes);
+        synchronized (this) {
+          if (prefetched.get(uri) != prefetch) {
+            return;
+          }
+          if (bytes < 0) {
+            remove(uri);
+            return;
+          }
+          prefetch.bytes = bytes;
+          totalBytes += bytes;
+          evict();
+        }
+      } catch (RuntimeException e) {
+        synchronized (this) {
+          if (prefetched.get(uri) == prefetch) {
+            remove(uri);
+          }
+        }
+      } finally {
+        permits.release();
+      }
+    });
+  }
+
+  /**
+   * The `take` function returns the page prefetched for the supplied URI, which may still be in the
+   * process of being requested. The page is no longer held by this prefetcher once taken.
+   *
+   * @param uri of the page.
+   * @return the prefetched page, or null when the page has not been prefetched.
+   */
+  synchronized HtmlPage take(URI uri) {
+    Prefetch prefetch = remove(uri);
+    return prefetch != null && !prefetch.isExpired() ? prefetch.page : null;
+  }
+
+  private Prefetch remove(URI uri) {
+    Prefetch prefetch = prefetched.remove(uri);
+    if (prefetch != null) {
+      totalBytes -= prefetch.bytes;
+    }
+    return prefetch;
+  }
+
+  private void evict() {
+    Iterator<Map.Entry<URI, Prefetch>> iterator = prefetched.entrySet().iterator();
+    while (iterator.hasNext()) {
+      Prefetch oldest = iterator.next().getValue();
+      if (totalBytes <= maxBytes && !oldest.isExpired()) {
+        return;
+      }
+      totalBytes -= oldest.bytes;
+      iterator.remove();
+    }
+  }
+
+  private static class Prefetch {
+    private final HtmlPage page;
+    private final long created = System.currentTimeMillis();
+    private long bytes;
+
+    private Prefetch(HtmlPage page) {
+      this.page = page;
+    }
+
+    private boolean isExpired() {
+      return System.currentTimeMillis() - created > EXPIRY_MILLIS;
+    }
+  }
+
+}
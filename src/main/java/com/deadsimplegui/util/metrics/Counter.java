@@ -0,0 +1,37 @@
+package com.deadsimplegui.util.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The `Counter` class exists to count events, such as cache hits and misses, cheaply enough to be
+ * used on every navigation.
+ */
+public class Counter {
+  private final String name;
+  private final LongAdder count = new LongAdder();
+
+  Counter(String name) {
+    this.name = name;
+  }
+
+  public void increment() {
+    count.increment();
+  }
+
+  public void add(long amount) {
+    count.add(amount);
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public long getCount() {
+    return count.sum();
+  }
+
+  public void reset() {
+    count.reset();
+  }
+
+}
@@ -0,0 +1,73 @@
+package com.deadsimplegui.util.metrics;
+
+import com.deadsimplegui.util.resource.Page;
+import com.deadsimplegui.util.template.Template;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The `DiagnosticsPage` class exists to display the application's metrics within the application
+ * itself, at the reserved `http://localhost/_diagnostics` path, so that the stage of a navigation
+ * that is slow can be found without attaching any tools. Requesting the page with `reset=true`
+ * discards the recorded metrics first.
+ */
+public class DiagnosticsPage implements Page {
+  public static final String PATH = "/_diagnostics";
+  private static final Template TEMPLATE = Template.compile(""
+      + "<html><head><title>Diagnostics</title></head><body>"
+      + "<h1>Diagnostics</h1>"
+      + "<p><a href=\"" + PATH + "\">Refresh</a> | <a href=\"" + PATH + "?reset=true\">Reset</a></p>"
+      + "<h2>Timers (ms)</h2>"
+      + "<table border=\"1\"><tr><th>Name</th><th>Count</th><th>Mean</th><th>p50</th><th>p90</th>"
+      + "<th>p99</th><th>Max</th></tr>"
+      + "{{#timers}}<tr><td>{{name}}</td><td>{{count}}</td><td>{{mean}}</td><td>{{p50}}</td>"
+      + "<td>{{p90}}</td><td>{{p99}}</td><td>{{max}}</td></tr>{{/timers}}</table>"
+      + "{{^timers}}<p>Nothing has been timed yet.</p>{{/timers}}"
+      + "<h2>Counters</h2>"
+      + "<table border=\"1\">{{#counters}}<tr><td>{{name}}</td><td>{{value}}</td></tr>{{/counters}}</table>"
+      + "<h2>Gauges</h2>"
+      + "<table border=\"1\">{{#gauges}}<tr><td>{{name}}</td><td>{{value}}</td></tr>{{/gauges}}</table>"
+      + "</body></html>");
+
+  @Override
+  public String getHtml(Map<String, String> params) {
+    if ("true".equals(params.get("reset"))) {
+      Metrics.reset();
+    }
+    List<Map<String, Object>> timers = new ArrayList<>();
+    Metrics.getTimers().forEach((name, timer) -> {
+      Map<String, Object> row = new HashMap<>();
+      row.put("name", name);
+      row.put("count", timer.getCount());
+      row.put("mean", format(timer.getMeanMillis()));
+      row.put("p50", format(timer.getP50Millis()));
+      row.put("p90", format(timer.getP90Millis()));
+      row.put("p99", format(timer.getP99Millis()));
+      row.put("max", format(timer.getMaxMillis()));
+      timers.add(row);
+    });
+    Map<String, Object> context = new HashMap<>();
+    context.put("timers", timers);
+    context.put("counters", rows(Metrics.getCounters()));
+    context.put("gauges", rows(Metrics.getGauges()));
+    return TEMPLATE.render(context);
+  }
+
+  private static List<Map<String, Object>> rows(Map<String, Long> values) {
+    List<Map<String, Object>> rows = new ArrayList<>();
+    values.forEach((name, value) -> {
+      Map<String, Object> row = new HashMap<>();
+      row.put("name", name);
+      row.put("value", value);
+      rows.add(row);
+    });
+    return rows;
+  }
+
+  private static String format(double millis) {
+    return String.format("%.3f", millis);
+  }
+
+}
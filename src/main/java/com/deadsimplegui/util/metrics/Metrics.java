@@ -0,0 +1,124 @@
+package com.deadsimplegui.util.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * The `Metrics` class exists to hold the timers, counters and gauges that describe where the time
+ * of a navigation is spent and how well the caches are doing. The stages of a navigation record
+ * into timers named after them, such as `render.parse`, which are obtained once and kept in static
+ * fields so that recording costs no more than reading the clock and updating a few adders.
+ * <p>
+ * The metrics are displayed by the built-in page at `http://localhost/_diagnostics`, see
+ * `DiagnosticsPage`, and exposed through JMX once `registerMBean` has been called.
+ */
+public class Metrics {
+  public static final String OBJECT_NAME = "com.deadsimplegui:type=Metrics";
+  private static final Map<String, Timer> TIMERS = new ConcurrentHashMap<>();
+  private static final Map<String, Counter> COUNTERS = new ConcurrentHashMap<>();
+  private static final Map<String, LongSupplier> GAUGES = new ConcurrentHashMap<>();
+
+  private Metrics() {
+  }
+
+  /**
+   * The `timer` function returns the timer with the supplied name, creating it on first use.
+   *
+   * @param name of the timer, such as `render.parse`.
+   * @return the timer.
+   */
+  public static Timer timer(String name) {
+    return TIMERS.computeIfAbsent(name, Timer::new);
+  }
+
+  /**
+   * The `counter` function returns the counter with the supplied name, creating it on first use.
+   *
+   * @param name of the counter, such as `documentCache.hit`.
+   * @return the counter.
+   */
+  public static Counter counter(String name) {
+    return COUNTERS.computeIfAbsent(name, Counter::new);
+  }
+
+  /**
+   * The `gauge` function registers a value that is read whenever the metrics are reported, such as
+   * the memory held by a cache. A gauge registered with the name of an existing gauge replaces it.
+   *
+   * @param name of the gauge, such as `imageCache.bytes`.
+   * @param value to read the gauge's value with.
+   */
+  public static void gauge(String name, LongSupplier value) {
+    GAUGES.put(name, value);
+  }
+
+  public static Map<String, TimerSnapshot> getTimers() {
+    Map<String, TimerSnapshot> timers = new TreeMap<>();
+    TIMERS.forEach((name, timer) -> timers.put(name, TimerSnapshot.of(timer)));
+    return timers;
+  }
+
+  public static Map<String, Long> getCounters() {
+    Map<String, Long> counters = new TreeMap<>();
+    COUNTERS.forEach((name, counter) -> counters.put(name, counter.getCount()));
+    return counters;
+  }
+
+  public static Map<String, Long> getGauges() {
+    Map<String, Long> gauges = new TreeMap<>();
+    GAUGES.forEach((name, gauge) -> gauges.put(name, gauge.getAsLong()));
+    return gauges;
+  }
+
+  /**
+   * The `reset` function discards every recorded duration and counted event. Gauges are kept.
+   */
+  public static void reset() {
+    TIMERS.values().forEach(Timer::reset);
+    COUNTERS.values().forEach(Counter::reset);
+  }
+
+  /**
+   * The `registerMBean` function exposes the metrics through the platform MBean server under the
+   * `com.deadsimplegui:type=Metrics` object name. Registering more than once has no effect.
+   */
+  public static void registerMBean() {
+    try {
+      ManagementFactory.getPlatformMBeanServer().registerMBean(new MBean(), new ObjectName(OBJECT_NAME));
+    } catch (InstanceAlreadyExistsException e) {
+      //swallow, the metrics are already exposed
+    } catch (JMException e) {
+      throw new RuntimeException("Unable to register the metrics MBean " + OBJECT_NAME, e);
+    }
+  }
+
+  private static class MBean implements MetricsMXBean {
+
+    @Override
+    public Map<String, TimerSnapshot> getTimers() {
+      return Metrics.getTimers();
+    }
+
+    @Override
+    public Map<String, Long> getCounters() {
+      return Metrics.getCounters();
+    }
+
+    @Override
+    public Map<String, Long> getGauges() {
+      return Metrics.getGauges();
+    }
+
+    @Override
+    public void reset() {
+      Metrics.reset();
+    }
+  }
+
+}
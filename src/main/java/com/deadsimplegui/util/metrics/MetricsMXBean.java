@@ -0,0 +1,31 @@
+package com.deadsimplegui.util.metrics;
+
+import java.util.Map;
+
+/**
+ * The `MetricsMXBean` interface exists to expose the application's metrics through JMX under the
+ * `com.deadsimplegui:type=Metrics` object name, see `Metrics.registerMBean`.
+ */
+public interface MetricsMXBean {
+
+  /**
+   * The recorded timers by name.
+   */
+  Map<String, TimerSnapshot> getTimers();
+
+  /**
+   * The counted events by name.
+   */
+  Map<String, Long> getCounters();
+
+  /**
+   * The current values of the gauges by name.
+   */
+  Map<String, Long> getGauges();
+
+  /**
+   * Discards every recorded duration and counted event.
+   */
+  void reset();
+
+}
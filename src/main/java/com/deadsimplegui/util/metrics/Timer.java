@@ -0,0 +1,120 @@
+package com.deadsimplegui.util.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The `Timer` class exists to record how long an operation takes, cheaply enough to be used on
+ * every navigation. Durations are counted into power of two buckets, so that percentiles can be
+ * estimated to within a factor of two without keeping the individual durations.
+ * <p>
+ * Usage:
+ * <pre>
+ *   long start = System.nanoTime();
+ *   ...
+ *   timer.record(System.nanoTime() - start);
+ * </pre>
+ */
+public class Timer {
+  private static final int BUCKETS = 64;
+  private final String name;
+  private final LongAdder count = new LongAdder();
+  private final LongAdder totalNanos = new LongAdder();
+  private final AtomicLong maxNanos = new AtomicLong();
+  private final LongAdder[] buckets = new LongAdder[BUCKETS];
+
+  Timer(String name) {
+    this.name = name;
+    for (int i = 0; i < BUCKETS; i++) {
+      buckets[i] = new LongAdder();
+    }
+  }
+
+  /**
+   * The `record` function records an operation that took the supplied duration.
+   *
+   * @param nanos the duration of the operation.
+   */
+  public void record(long nanos) {
+    if (nanos < 0) {
+      return;
+    }
+    count.increment();
+    totalNanos.add(nanos);
+    buckets[Math.max(0, BUCKETS - 1 - Long.numberOfLeadingZeros(nanos))].increment();
+    long max = maxNanos.get();
+    while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+      max = maxNanos.get();
+    }
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public long getCount() {
+    return count.sum();
+  }
+
+  public long getTotalNanos() {
+    return totalNanos.sum();
+  }
+
+  public long getMaxNanos() {
+    return maxNanos.get();
+  }
+
+  /**
+   * The `getMeanNanos` function returns the mean duration of the recorded operations.
+   *
+   * @return the mean duration, or 0 when no operation has been recorded.
+   */
+  public double getMeanNanos() {
+    long recorded = count.sum();
+    return recorded == 0 ? 0 : (double) totalNanos.sum() / recorded;
+  }
+
+  /**
+   * The `getPercentileNanos` function estimates the duration that the supplied fraction of the
+   * recorded operations took no longer than. The estimate is the upper bound of the power of two
+   * bucket the percentile falls into, capped by the longest recorded duration.
+   *
+   * @param percentile between 0 and 1, such as 0.99.
+   * @return the estimated duration, or 0 when no operation has been recorded.
+   */
+  public long getPercentileNanos(double percentile) {
+    long[] counts = new long[BUCKETS];
+    long total = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      counts[i] = buckets[i].sum();
+      total += counts[i];
+    }
+    if (total == 0) {
+      return 0;
+    }
+    long rank = (long) Math.ceil(percentile * total);
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += counts[i];
+      if (seen >= rank) {
+        long upperBound = i == BUCKETS - 1 ? Long.MAX_VALUE : (1L << (i + 1)) - 1;
+        return Math.min(upperBound, maxNanos.get());
+      }
+    }
+    return maxNanos.get();
+  }
+
+  /**
+   * The `reset` function discards the recorded operations. Operations recorded while the timer is
+   * being reset may be partially discarded.
+   */
+  public void reset() {
+    count.reset();
+    totalNanos.reset();
+    maxNanos.set(0);
+    for (LongAdder bucket : buckets) {
+      bucket.reset();
+    }
+  }
+
+}
@@ -0,0 +1,69 @@
+package com.deadsimplegui.util.metrics;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * The `TimerSnapshot` class exists to hold the state of a `Timer` at a point in time, in
+ * milliseconds, so that it can be displayed or exposed through JMX.
+ */
+public class TimerSnapshot {
+  private final long count;
+  private final double meanMillis;
+  private final double p50Millis;
+  private final double p90Millis;
+  private final double p99Millis;
+  private final double maxMillis;
+
+  @ConstructorProperties({"count", "meanMillis", "p50Millis", "p90Millis", "p99Millis", "maxMillis"})
+  public TimerSnapshot(
+      long count,
+      double meanMillis,
+      double p50Millis,
+      double p90Millis,
+      double p99Millis,
+      double maxMillis
+  ) {
+    this.count = count;
+    this.meanMillis = meanMillis;
+    this.p50Millis = p50Millis;
+    this.p90Millis = p90Millis;
+    this.p99Millis = p99Millis;
+    this.maxMillis = maxMillis;
+  }
+
+  static TimerSnapshot of(Timer timer) {
+    return new TimerSnapshot(
+        timer.getCount(),
+        timer.getMeanNanos() / 1e6,
+        timer.getPercentileNanos(0.5) / 1e6,
+        timer.getPercentileNanos(0.9) / 1e6,
+        timer.getPercentileNanos(0.99) / 1e6,
+        timer.getMaxNanos() / 1e6
+    );
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  public double getMeanMillis() {
+    return meanMillis;
+  }
+
+  public double getP50Millis() {
+    return p50Millis;
+  }
+
+  public double getP90Millis() {
+    return p90Millis;
+  }
+
+  public double getP99Millis() {
+    return p99Millis;
+  }
+
+  public double getMaxMillis() {
+    return maxMillis;
+  }
+
+}
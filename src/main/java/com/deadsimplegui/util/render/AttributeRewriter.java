@@ -0,0 +1,21 @@
+package com.deadsimplegui.util.render;
+
+import javax.swing.text.MutableAttributeSet;
+import javax.swing.text.html.HTML;
+
+/**
+ * The `AttributeRewriter` interface exists to provide an overridable structure for rewriting the
+ * attributes of the tags of an HTML document while the document is being parsed.
+ */
+public interface AttributeRewriter {
+
+  /**
+   * The `rewrite` function's implementation should modify the supplied attributes of the supplied
+   * tag as required before the tag is added to the document.
+   *
+   * @param tag whose attributes are being parsed.
+   * @param attributes of the tag, which may be modified.
+   */
+  void rewrite(HTML.Tag tag, MutableAttributeSet attributes);
+
+}
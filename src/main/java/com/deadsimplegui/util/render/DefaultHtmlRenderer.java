@@ -1,161 +1,262 @@
 package com.deadsimplegui.util.render;
 
 import com.deadsimplegui.util.Gui;
-import java.io.ByteArrayOutputStream;
+import com.deadsimplegui.util.metrics.Metrics;
+import com.deadsimplegui.util.metrics.Timer;
 import java.io.IOException;
-import java.io.StringReader;
 import java.io.UnsupportedEncodingException;
+import java.net.MalformedURLException;
+import java.net.URL;
 import java.net.URLEncoder;
 import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
 import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import javax.swing.text.Element;
 import javax.swing.text.MutableAttributeSet;
 import javax.swing.text.html.HTML;
 import javax.swing.text.html.HTMLDocument;
 import com.deadsimplegui.util.HtmlPage;
+import com.deadsimplegui.util.resource.Fragment;
+import com.deadsimplegui.util.resource.ResourceContent;
 
 /**
  * The `DefaultHtmlRenderer` exists to provide a general catch-all implementation for rendering the
- * supplied HTML page to the supplied GUI.
+ * supplied HTML page to the supplied GUI. When the length of the page's HTML is unknown, such as
+ * while a `StreamingPage` is still writing it, the document is displayed as soon as parsing begins
+ * so that the beginning of the page is shown while the rest of it is read.
+ * <p>
+ * Rendering stops between stages once the GUI has navigated elsewhere, see `Gui.isCancelled`, and
+ * the HTML being read is closed by the GUI so that parsing it fails rather than running to its end.
  */
 public class DefaultHtmlRenderer implements RendererLogic {
+  private static final int PROGRESSIVE_TOKEN_THRESHOLD = 100;
+  private static final Timer EXECUTE = Metrics.timer("render.execute");
+  private static final Timer SANITIZE = Metrics.timer("render.sanitize");
+  private static final Timer PARSE = Metrics.timer("render.parse");
+  private static final Timer PROXY_LINKS = Metrics.timer("render.proxyLinks");
+  private static final Timer CACHE_IMAGES = Metrics.timer("render.cacheImages");
+  private static final Timer FRAGMENTS = Metrics.timer("render.fragments");
 
   @Override
   public void execute(HtmlPage htmlPage, Gui gui) throws IOException, BadLocationException {
-    String html = new String(htmlPage.getHtml());
-    html = removeJavaScript(html);
-    html = removeMetaElements(html);
-
-    EditableHtmlEditorKit htmlKit = new EditableHtmlEditorKit();
-    EditableHtmlDocument htmlDoc = (EditableHtmlDocument) htmlKit.createDefaultDocument();
-    htmlKit.read(new StringReader(html), htmlDoc, 0);
-
-    proxyLinks(htmlDoc);
-    cacheImages(htmlDoc, htmlPage, gui);
-
-    ByteArrayOutputStream baos = new ByteArrayOutputStream();
-    htmlKit.write(baos, htmlDoc, 0, Integer.MAX_VALUE);
-    gui.setText(baos.toString(Charset.defaultCharset().toString()));
+    long start = System.nanoTime();
+    try {
+      render(htmlPage, gui);
+    } finally {
+      EXECUTE.record(System.nanoTime() - start);
+    }
   }
 
   /**
-   * The `proxyLinks` function wraps all links in the supplied tokenized HTML document into a
-   * "http://127.0.0.1/?url=" proxy. This should prevent the links from leaking the computers IP
-   * address through automatic DNS look ups.
-   * <p>
-   * This is needed because the java URL class does an automatic DNS look up and the HyperlinkEvent
-   * instances returned from the HyperlinkEventListener contain a URL object. This is a transparent
-   * way to prevent that HyperlinkEvent from leaking the computers IP through an automatic DNS
-   * lookup.
-   *
-   * @param htmlDoc The tokenized HTML document to proxy all of its links.
-   * @throws UnsupportedEncodingException When unable to url-encode the proxy link parameter.
+   * The `render` function renders the supplied HTML page to the supplied GUI, recording the time
+   * spent in each stage. The time spent parsing includes the time spent reading the HTML, but not
+   * the time spent sanitizing it or proxying its links and images.
    */
-  private static void proxyLinks(EditableHtmlDocument htmlDoc) throws UnsupportedEncodingException {
-    for (HTMLDocument.Iterator iterator = htmlDoc.getIterator(HTML.Tag.A); iterator.isValid(); iterator.next()) {
-      MutableAttributeSet attributes = (MutableAttributeSet) iterator.getAttributes();
-      String originalHref = (String) attributes.getAttribute(HTML.Attribute.HREF);
-      if(originalHref != null && !originalHref.startsWith("http://127.0.0.1/?url=")) {
-        String proxiedHref = "http://127.0.0.1/?url=" + URLEncoder.encode(originalHref, Charset.defaultCharset().toString());
-        htmlDoc.addAttribute(attributes, HTML.Attribute.HREF, proxiedHref);
+  private static void render(HtmlPage htmlPage, Gui gui) throws IOException, BadLocationException {
+    if (gui.isCancelled()) {
+      return;
+    }
+    List<Fragment> fragments = gui.isDisplaying(htmlPage) ? htmlPage.getFragments() : null;
+    if (fragments != null) {
+      gui.updateDocument(document -> update(document, fragments, htmlPage, gui));
+      return;
+    }
+    boolean cacheable = htmlPage.isCacheable();
+    if (cacheable && reuse(htmlPage, gui)) {
+      return;
+    }
+    if (gui.isCancelled()) {
+      return;
+    }
+    EditableHtmlEditorKit htmlKit = new EditableHtmlEditorKit();
+    EditableHtmlDocument htmlDoc = (EditableHtmlDocument) htmlKit.createDefaultDocument();
+    List<URL> proxiedSrcs = new ArrayList<>();
+    List<DocumentCache.ImageReference> images = new ArrayList<>();
+    long[] linkNanos = new long[1];
+    long[] imageNanos = new long[1];
+    htmlDoc.setAttributeRewriter((tag, attributes) -> {
+      long tagStart = System.nanoTime();
+      if (tag == HTML.Tag.A) {
+        proxyLink(attributes);
+        linkNanos[0] += System.nanoTime() - tagStart;
+      } else if (tag == HTML.Tag.IMG) {
+        images.add(new DocumentCache.ImageReference(
+            (String) attributes.getAttribute(HTML.Attribute.SRC),
+            (String) attributes.getAttribute(HTML.Attribute.WIDTH),
+            (String) attributes.getAttribute(HTML.Attribute.HEIGHT)
+        ));
+        proxiedSrcs.add(cacheImage(attributes, htmlPage, gui));
+        imageNanos[0] += System.nanoTime() - tagStart;
+      }
+    });
+    boolean displayed = false;
+    long parseStart = System.nanoTime();
+    try (ResourceContent content = gui.open(htmlPage);
+         SanitizingReader reader = new SanitizingReader(content.getReader())) {
+      if (content.getContentLength() < 0) {
+        //the HTML is still being produced, so display the document while it is read
+        htmlDoc.setTokenThreshold(PROGRESSIVE_TOKEN_THRESHOLD);
+        gui.setDocument(htmlDoc);
+        displayed = true;
       }
+      htmlKit.read(reader, htmlDoc, 0);
+      long nested = reader.getNanos() + linkNanos[0] + imageNanos[0];
+      PARSE.record(System.nanoTime() - parseStart - nested);
+      SANITIZE.record(reader.getNanos());
+      PROXY_LINKS.record(linkNanos[0]);
+      CACHE_IMAGES.record(imageNanos[0]);
+    }
+    htmlDoc.setAttributeRewriter(null);
+    if (gui.isCancelled()) {
+      return;
+    }
+    gui.pinImages(proxiedSrcs);
+    if (cacheable) {
+      gui.getDocumentCache().put(htmlPage.getUri(), htmlDoc, images);
+    }
+    if (!displayed) {
+      gui.setDocument(htmlDoc);
     }
   }
 
   /**
-   * The `cacheImages` function will cache all images in the supplied tokenized HTML document so
-   * that they can be render-able in the GUI and will change their image link to reference an
-   * image at http://127.0.0.1/###.img to prevent leaking the computers IP through an automatic DNS
-   * lookup.
+   * The `reuse` function displays the document cached for the supplied HTML page. The images
+   * referenced by the document are requested again in case they have been evicted from the GUI's
+   * image cache since the document was cached.
    *
-   * @param htmlDoc The tokenized HTML document to proxy all of its links.
    * @param htmlPage The HTML page to load into the supplied GUI.
    * @param gui The GUI to load the supplied HTML page into.
-   * @throws IOException when unable to retrieve a resource.
+   * @return true when a cached document was displayed.
+   * @throws MalformedURLException when unable to proxy an image.
    */
-  private static void cacheImages(
-      EditableHtmlDocument htmlDoc,
-      HtmlPage htmlPage,
-      Gui gui
-  ) throws IOException {
-    for (HTMLDocument.Iterator iterator = htmlDoc.getIterator(HTML.Tag.IMG); iterator.isValid(); iterator.next()) {
-      MutableAttributeSet attributes = (MutableAttributeSet) iterator.getAttributes();
-      String originalSrc = (String) attributes.getAttribute(HTML.Attribute.SRC);
-      String proxiedSrc = ImageRenderer.loadImage(originalSrc, htmlPage, gui);
-      htmlDoc.addAttribute(attributes, HTML.Attribute.SRC, proxiedSrc);
+  private static boolean reuse(HtmlPage htmlPage, Gui gui) throws MalformedURLException {
+    DocumentCache.CachedDocument cached = gui.getDocumentCache().get(htmlPage.getUri());
+    if (cached == null) {
+      return false;
+    }
+    List<URL> proxiedSrcs = new ArrayList<>();
+    for (DocumentCache.ImageReference image : cached.getImages()) {
+      proxiedSrcs.add(new URL(ImageRenderer.loadImage(
+          image.getSrc(),
+          image.getWidth(),
+          image.getHeight(),
+          htmlPage,
+          gui
+      )));
     }
+    gui.pinImages(proxiedSrcs);
+    gui.setDocument(cached.getDocument());
+    return true;
   }
 
   /**
-   * The `removeJavaScript` function exists to remove all javascript that exists within the SCRIPT
-   * elements as it will not render anyways.
+   * The `update` function applies the supplied fragments to the supplied displayed document. The
+   * links and images of the fragments are proxied like those of a rendered page, and fragments
+   * targeting an element that does not exist, or that is not rendered as a block, are ignored.
+   * This must be called on the event dispatch thread.
    *
-   * @param rawHtml The HTML document to remove the javascript from.
-   * @return The HTML document with all javascript removed.
+   * @param document The displayed document.
+   * @param fragments The updates to apply.
+   * @param htmlPage The HTML page that supplied the fragments.
+   * @param gui The GUI displaying the document.
    */
-  private static String removeJavaScript(String rawHtml) {
-    boolean inScript = false;
-    StringBuilder html = new StringBuilder();
-    for(int i=0; i<rawHtml.length(); i++) {
-      if (inScript && i-9 > -1) {
-        String buffer = rawHtml.substring(i-9, i);
-        if (buffer.equalsIgnoreCase("</script>")) {
-          inScript = false;
-        }
+  private static void update(Document document, List<Fragment> fragments, HtmlPage htmlPage, Gui gui) {
+    if (!(document instanceof EditableHtmlDocument)) {
+      return;
+    }
+    long start = System.nanoTime();
+    EditableHtmlDocument htmlDoc = (EditableHtmlDocument) document;
+    htmlDoc.setAttributeRewriter((tag, attributes) -> {
+      if (tag == HTML.Tag.A) {
+        proxyLink(attributes);
+      } else if (tag == HTML.Tag.IMG) {
+        cacheImage(attributes, htmlPage, gui);
       }
-      if (i+8 < rawHtml.length()) {
-        String buffer = rawHtml.substring(i, i+8);
-        if (buffer.equalsIgnoreCase("<script>") || buffer.equalsIgnoreCase("<script ")) {
-          inScript = true;
+    });
+    try {
+      for (Fragment fragment : fragments) {
+        Element element = htmlDoc.getElement(fragment.getId());
+        if (element == null || element.isLeaf()) {
+          continue;
+        }
+        if (fragment.isOuter()) {
+          htmlDoc.setOuterHTML(element, fragment.getHtml());
+        } else {
+          htmlDoc.setInnerHTML(element, fragment.getHtml());
         }
       }
-      if (!inScript) {
-        html.append(rawHtml.charAt(i));
+    } catch (BadLocationException | IOException e) {
+      throw new RuntimeException("Unable to update " + htmlPage.getUri(), e);
+    } finally {
+      htmlDoc.setAttributeRewriter(null);
+    }
+    List<URL> proxiedSrcs = new ArrayList<>();
+    for (HTMLDocument.Iterator iterator = htmlDoc.getIterator(HTML.Tag.IMG); iterator.isValid(); iterator.next()) {
+      try {
+        proxiedSrcs.add(new URL((String) iterator.getAttributes().getAttribute(HTML.Attribute.SRC)));
+      } catch (MalformedURLException e) {
+        //swallow
       }
     }
-    return html.toString();
+    gui.pinImages(proxiedSrcs);
+    FRAGMENTS.record(System.nanoTime() - start);
   }
 
   /**
-   * The `removeMetaElements` is necessary because the GUI refuses to render HTML documents that
-   * have un-closed META elements and it seems that most META elements have no closing tag.
+   * The `proxyLink` function wraps the link in the supplied attributes of an A tag into a
+   * "http://127.0.0.1/?url=" proxy. This should prevent the link from leaking the computers IP
+   * address through automatic DNS look ups.
+   * <p>
+   * This is needed because the java URL class does an automatic DNS look up and the HyperlinkEvent
+   * instances returned from the HyperlinkEventListener contain a URL object. This is a transparent
+   * way to prevent that HyperlinkEvent from leaking the computers IP through an automatic DNS
+   * lookup.
    *
-   * @param rawHtml The HTML document to remove the META tags from.
-   * @return The HTML document with all META elements removed.
+   * @param attributes The attributes of the A tag to proxy the link of.
    */
-  private static String removeMetaElements(String rawHtml) {
-    boolean inMeta = false;
-    boolean inHead = false;
-    StringBuilder html = new StringBuilder();
-    for(int i=0; i < rawHtml.length(); i++) {
-      if (inHead && i - 7 > -1) {
-        String buffer = rawHtml.substring(i-7, i);
-        if(buffer.equalsIgnoreCase("</head>")) {
-          inHead = false;
-        }
-      }
-      if (i + 6 < rawHtml.length()) {
-        String buffer = rawHtml.substring(i, i+6);
-        if(buffer.equalsIgnoreCase("<head>") || buffer.equalsIgnoreCase("<head ")) {
-          inHead = true;
-        }
-      }
-      if (inHead && inMeta) {
-        String buffer = rawHtml.substring(i-1, i);
-        if(buffer.equals(">")) {
-          inMeta = false;
-        }
-      }
-      if (inHead && i + 6 < rawHtml.length()) {
-        String buffer = rawHtml.substring(i, i+6);
-        if(buffer.equalsIgnoreCase("<meta ")) {
-          inMeta = true;
-        }
-      }
-      if (!inMeta) {
-        html.append(rawHtml.charAt(i));
+  private static void proxyLink(MutableAttributeSet attributes) {
+    String originalHref = (String) attributes.getAttribute(HTML.Attribute.HREF);
+    if(originalHref != null && !originalHref.startsWith("http://127.0.0.1/?url=")) {
+      try {
+        String proxiedHref = "http://127.0.0.1/?url=" + URLEncoder.encode(originalHref, Charset.defaultCharset().toString());
+        attributes.removeAttribute(HTML.Attribute.HREF);
+        attributes.addAttribute(HTML.Attribute.HREF, proxiedHref);
+      } catch (UnsupportedEncodingException e) {
+        throw new RuntimeException("Unable to proxy link " + originalHref, e);
       }
     }
-    return html.toString();
+  }
+
+  /**
+   * The `cacheImage` function will cache the image in the supplied attributes of an IMG tag so that
+   * it can be render-able in the GUI and will change its image link to reference an image at
+   * http://127.0.0.1/###.img to prevent leaking the computers IP through an automatic DNS lookup.
+   * A placeholder image is cached straight away while the image itself is retrieved in the
+   * background.
+   *
+   * @param attributes The attributes of the IMG tag to cache the image of.
+   * @param htmlPage The HTML page to load into the supplied GUI.
+   * @param gui The GUI to load the supplied HTML page into.
+   * @return The proxied image link.
+   */
+  private static URL cacheImage(MutableAttributeSet attributes, HtmlPage htmlPage, Gui gui) {
+    String originalSrc = (String) attributes.getAttribute(HTML.Attribute.SRC);
+    try {
+      String proxiedSrc = ImageRenderer.loadImage(
+          originalSrc,
+          (String) attributes.getAttribute(HTML.Attribute.WIDTH),
+          (String) attributes.getAttribute(HTML.Attribute.HEIGHT),
+          htmlPage,
+          gui
+      );
+      attributes.removeAttribute(HTML.Attribute.SRC);
+      attributes.addAttribute(HTML.Attribute.SRC, proxiedSrc);
+      return new URL(proxiedSrc);
+    } catch (MalformedURLException e) {
+      throw new RuntimeException("Unable to proxy image " + originalSrc, e);
+    }
   }
 
 }
@@ -0,0 +1,169 @@
+package com.deadsimplegui.util.render;
+
+import com.deadsimplegui.util.metrics.Counter;
+import com.deadsimplegui.util.metrics.Metrics;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import javax.swing.text.html.HTMLDocument;
+
+/**
+ * The `DocumentCache` class exists to hold the parsed documents of recently displayed pages, so
+ * that revisiting a page displays its document again without retrieving, sanitizing and parsing
+ * its HTML again.
+ * <p>
+ * Documents are keyed by the URI of their page without its fragment. The cache is bounded by both
+ * the number of documents and the total length of their text, and the least recently used
+ * documents are evicted first. Documents must be invalidated when the content of their page
+ * changes, see the `invalidate` functions.
+ */
+public class DocumentCache {
+  private static final Counter HITS = Metrics.counter("documentCache.hit");
+  private static final Counter MISSES = Metrics.counter("documentCache.miss");
+  private final int maxDocuments;
+  private final long maxLength;
+  private final LinkedHashMap<String, CachedDocument> documents = new LinkedHashMap<>(16, 0.75f, true);
+  private long totalLength;
+
+  /**
+   * The `DocumentCache` class constructor.
+   *
+   * @param maxDocuments the maximum number of documents cached, 0 disables the cache.
+   * @param maxLength the maximum total length of the text of the documents cached.
+   */
+  public DocumentCache(int maxDocuments, long maxLength) {
+    this.maxDocuments = maxDocuments;
+    this.maxLength = maxLength;
+  }
+
+  /**
+   * The `get` function returns the document cached for the page at the supplied URI.
+   *
+   * @param uri of the page.
+   * @return the cached document, or null when none is cached.
+   */
+  public synchronized CachedDocument get(URI uri) {
+    CachedDocument cached = documents.get(keyOf(uri));
+    (cached != null ? HITS : MISSES).increment();
+    return cached;
+  }
+
+  /**
+   * The `put` function caches the supplied document for the page at the supplied URI.
+   *
+   * @param uri of the page.
+   * @param document the page's parsed document.
+   * @param images referenced by the document, which are requested again when the document is
+   *               reused.
+   */
+  public synchronized void put(URI uri, HTMLDocument document, List<ImageReference> images) {
+    if (maxDocuments <= 0) {
+      return;
+    }
+    CachedDocument cached = new CachedDocument(document, images);
+    remove(keyOf(uri));
+    documents.put(keyOf(uri), cached);
+    totalLength += cached.length;
+    Iterator<CachedDocument> iterator = documents.values().iterator();
+    while (iterator.hasNext() && (documents.size() > maxDocuments || totalLength > maxLength)) {
+      totalLength -= iterator.next().length;
+      iterator.remove();
+    }
+  }
+
+  /**
+   * The `invalidate` function discards the document cached for the page at the supplied URI, so
+   * that the page is retrieved again the next time it is displayed.
+   *
+   * @param uri of the page.
+   */
+  public synchronized void invalidate(URI uri) {
+    remove(keyOf(uri));
+  }
+
+  /**
+   * The `invalidateAll` function discards every cached document.
+   */
+  public synchronized void invalidateAll() {
+    documents.clear();
+    totalLength = 0;
+  }
+
+  public synchronized int size() {
+    return documents.size();
+  }
+
+  private void remove(String key) {
+    CachedDocument removed = documents.remove(key);
+    if (removed != null) {
+      totalLength -= removed.length;
+    }
+  }
+
+  private static String keyOf(URI uri) {
+    if (uri.getRawFragment() == null) {
+      return uri.toString();
+    }
+    try {
+      return new URI(uri.getScheme(), uri.getRawSchemeSpecificPart(), null).toString();
+    } catch (URISyntaxException e) {
+      return uri.toString();
+    }
+  }
+
+  /**
+   * The `CachedDocument` class exists to hold a cached document along with the images it
+   * references.
+   */
+  public static class CachedDocument {
+    private final HTMLDocument document;
+    private final List<ImageReference> images;
+    private final long length;
+
+    private CachedDocument(HTMLDocument document, List<ImageReference> images) {
+      this.document = document;
+      this.images = Collections.unmodifiableList(images);
+      this.length = document.getLength();
+    }
+
+    public HTMLDocument getDocument() {
+      return document;
+    }
+
+    public List<ImageReference> getImages() {
+      return images;
+    }
+  }
+
+  /**
+   * The `ImageReference` class exists to record an IMG tag of a cached document, so that its image
+   * can be requested again if it has been evicted from the image cache.
+   */
+  public static class ImageReference {
+    private final String src;
+    private final String width;
+    private final String height;
+
+    public ImageReference(String src, String width, String height) {
+      this.src = src;
+      this.width = width;
+      this.height = height;
+    }
+
+    public String getSrc() {
+      return src;
+    }
+
+    public String getWidth() {
+      return width;
+    }
+
+    public String getHeight() {
+      return height;
+    }
+  }
+
+}
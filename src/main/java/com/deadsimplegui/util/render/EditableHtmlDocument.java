@@ -1,16 +1,23 @@
 package com.deadsimplegui.util.render;
 
-import javax.swing.text.AttributeSet;
+import java.io.IOException;
+import java.io.Reader;
+import java.net.URL;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
 import javax.swing.text.MutableAttributeSet;
 import javax.swing.text.html.HTML;
 import javax.swing.text.html.HTMLDocument;
+import javax.swing.text.html.HTMLEditorKit;
 import javax.swing.text.html.StyleSheet;
 
 /**
  * The `EditableHtmlDocument` exists to provide a way for manipulating HTML document attributes and
- * elements in the HtmlRenderer.
+ * elements in the HtmlRenderer. Attributes are best rewritten while the document is parsed by
+ * supplying an `AttributeRewriter`, which avoids locking the document for every attribute.
  */
 public class EditableHtmlDocument extends HTMLDocument {
+  private AttributeRewriter attributeRewriter;
 
   /**
    * The `EditableHtmlDocument` class constructor.
@@ -22,21 +29,126 @@ public class EditableHtmlDocument extends HTMLDocument {
   }
 
   /**
-   * The `addAttribute` function provides a process for editing the supplied attribute within the
-   * supplied attribute set to the supplied value. This is needed so that we can change the links
-   * and image sources to reference `http://127.0.0.1/`.
+   * The `setAttributeRewriter` function sets the rewriter that the attributes of every tag are
+   * passed through while the document is parsed.
    *
-   * @param attributeSet The attribute set to modify.
-   * @param attribute The attribute in the attribute set to modify.
-   * @param value The value to modify the attribute to.
+   * @param attributeRewriter to rewrite the attributes with, or null to keep them as parsed.
    */
-  public void addAttribute(AttributeSet attributeSet, HTML.Attribute attribute, String value) {
-    try {
-      writeLock();
-      ((MutableAttributeSet)attributeSet).removeAttribute(attribute);
-      ((MutableAttributeSet)attributeSet).addAttribute(attribute, value);
-    } finally {
-      writeUnlock();
+  public void setAttributeRewriter(AttributeRewriter attributeRewriter) {
+    this.attributeRewriter = attributeRewriter;
+  }
+
+  @Override
+  public HTMLEditorKit.ParserCallback getReader(int pos) {
+    Object desc = getProperty(Document.StreamDescriptionProperty);
+    if (desc instanceof URL) {
+      setBase((URL) desc);
+    }
+    return new RewritingReader(pos);
+  }
+
+  /**
+   * The `getParser` function returns the parser that HTML inserted into this document, such as by
+   * the `setInnerHTML` and `setOuterHTML` functions, is parsed with. The inserted HTML is sanitized
+   * and its attributes are passed through the document's `AttributeRewriter` like those of the HTML
+   * the document was read from.
+   */
+  @Override
+  public HTMLEditorKit.Parser getParser() {
+    HTMLEditorKit.Parser parser = super.getParser();
+    if (parser == null) {
+      return null;
+    }
+    return new HTMLEditorKit.Parser() {
+      @Override
+      public void parse(Reader r, HTMLEditorKit.ParserCallback cb, boolean ignoreCharSet) throws IOException {
+        parser.parse(new SanitizingReader(r), new RewritingCallback(cb), ignoreCharSet);
+      }
+    };
+  }
+
+  /**
+   * The `RewritingReader` class exists to pass the attributes of every tag through the document's
+   * `AttributeRewriter` before the tag is added to the document.
+   */
+  public class RewritingReader extends HTMLReader {
+
+    public RewritingReader(int offset) {
+      super(offset);
+    }
+
+    @Override
+    public void handleStartTag(HTML.Tag t, MutableAttributeSet a, int pos) {
+      if (attributeRewriter != null) {
+        attributeRewriter.rewrite(t, a);
+      }
+      super.handleStartTag(t, a, pos);
+    }
+
+    @Override
+    public void handleSimpleTag(HTML.Tag t, MutableAttributeSet a, int pos) {
+      if (attributeRewriter != null) {
+        attributeRewriter.rewrite(t, a);
+      }
+      super.handleSimpleTag(t, a, pos);
+    }
+  }
+
+  /**
+   * The `RewritingCallback` class exists to pass the attributes of every tag of inserted HTML
+   * through the document's `AttributeRewriter` before handing the tag to the wrapped callback.
+   */
+  private class RewritingCallback extends HTMLEditorKit.ParserCallback {
+    private final HTMLEditorKit.ParserCallback callback;
+
+    private RewritingCallback(HTMLEditorKit.ParserCallback callback) {
+      this.callback = callback;
+    }
+
+    @Override
+    public void flush() throws BadLocationException {
+      callback.flush();
+    }
+
+    @Override
+    public void handleText(char[] data, int pos) {
+      callback.handleText(data, pos);
+    }
+
+    @Override
+    public void handleComment(char[] data, int pos) {
+      callback.handleComment(data, pos);
+    }
+
+    @Override
+    public void handleStartTag(HTML.Tag t, MutableAttributeSet a, int pos) {
+      if (attributeRewriter != null) {
+        attributeRewriter.rewrite(t, a);
+      }
+      callback.handleStartTag(t, a, pos);
+    }
+
+    @Override
+    public void handleEndTag(HTML.Tag t, int pos) {
+      callback.handleEndTag(t, pos);
+    }
+
+    @Override
+    public void handleSimpleTag(HTML.Tag t, MutableAttributeSet a, int pos) {
+      if (attributeRewriter != null) {
+        attributeRewriter.rewrite(t, a);
+      }
+      callback.handleSimpleTag(t, a, pos);
+    }
+
+    @Override
+    public void handleError(String errorMsg, int pos) {
+      callback.handleError(errorMsg, pos);
+    }
+
+    @Override
+    public void handleEndOfLineString(String eol) {
+      callback.handleEndOfLineString(eol);
     }
   }
 
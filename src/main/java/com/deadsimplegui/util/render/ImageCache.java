@@ -0,0 +1,163 @@
+package com.deadsimplegui.util.render;
+
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Dictionary;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The `ImageCache` class exists to hold the images displayed by a GUI. Swing looks images up in
+ * the dictionary stored in a document's `imageCache` property, which this class implements.
+ * <p>
+ * The cache is bounded by the estimated memory used by the decoded pixels of its images. When the
+ * bound is exceeded the least recently used images are evicted, except for the images pinned
+ * because they are referenced by the document currently being displayed.
+ */
+public class ImageCache extends Dictionary<URL, Image> {
+  private static final int UNKNOWN_SIZE_BYTES = 4 * 1024;
+  private final long maxBytes;
+  private final LinkedHashMap<URL, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private Set<URL> pinned = Collections.emptySet();
+  private long totalBytes;
+
+  /**
+   * The `ImageCache` class constructor.
+   *
+   * @param maxBytes the maximum estimated memory used by the decoded pixels of the cached images.
+   */
+  public ImageCache(long maxBytes) {
+    this.maxBytes = maxBytes;
+  }
+
+  @Override
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  @Override
+  public synchronized boolean isEmpty() {
+    return entries.isEmpty();
+  }
+
+  @Override
+  public synchronized Enumeration<URL> keys() {
+    return Collections.enumeration(new ArrayList<>(entries.keySet()));
+  }
+
+  @Override
+  public synchronized Enumeration<Image> elements() {
+    ArrayList<Image> images = new ArrayList<>(entries.size());
+    for (Entry entry : entries.values()) {
+      images.add(entry.image);
+    }
+    return Collections.enumeration(images);
+  }
+
+  @Override
+  public synchronized Image get(Object key) {
+    Entry entry = entries.get(key);
+    return entry != null ? entry.image : null;
+  }
+
+  @Override
+  public synchronized Image put(URL key, Image value) {
+    if (key == null || value == null) {
+      throw new NullPointerException();
+    }
+    Entry entry = new Entry(value, weightOf(value));
+    Entry previous = entries.put(key, entry);
+    totalBytes += entry.weight;
+    if (previous != null) {
+      totalBytes -= previous.weight;
+    }
+    evict();
+    return previous != null ? previous.image : null;
+  }
+
+  @Override
+  public synchronized Image remove(Object key) {
+    Entry previous = entries.remove(key);
+    if (previous == null) {
+      return null;
+    }
+    totalBytes -= previous.weight;
+    return previous.image;
+  }
+
+  /**
+   * The `pin` function protects the supplied images from eviction, replacing the previously pinned
+   * images. This is used to keep the images referenced by the displayed document in the cache.
+   *
+   * @param urls of the images to pin.
+   */
+  public synchronized void pin(Collection<URL> urls) {
+    pinned = new HashSet<>(urls);
+    evict();
+  }
+
+  /**
+   * The estimated memory used by the decoded pixels of the cached images.
+   */
+  public synchronized long getTotalBytes() {
+    return totalBytes;
+  }
+
+  public long getMaxBytes() {
+    return maxBytes;
+  }
+
+  private void evict() {
+    Iterator<Map.Entry<URL, Entry>> iterator = entries.entrySet().iterator();
+    while (totalBytes > maxBytes && iterator.hasNext()) {
+      Map.Entry<URL, Entry> eldest = iterator.next();
+      if (!pinned.contains(eldest.getKey())) {
+        totalBytes -= eldest.getValue().weight;
+        iterator.remove();
+      }
+    }
+  }
+
+  /**
+   * The `weightOf` function estimates the memory used by the decoded pixels of the supplied image.
+   *
+   * @param image to estimate.
+   * @return the estimated number of bytes.
+   */
+  static long weightOf(Image image) {
+    if (image instanceof BufferedImage) {
+      DataBuffer dataBuffer = ((BufferedImage) image).getRaster().getDataBuffer();
+      return (long) dataBuffer.getSize()
+          * dataBuffer.getNumBanks()
+          * Math.max(1, DataBuffer.getDataTypeSize(dataBuffer.getDataType()) / 8);
+    }
+    if (image != null) {
+      int width = image.getWidth(null);
+      int height = image.getHeight(null);
+      if (width > 0 && height > 0) {
+        return 4L * width * height;
+      }
+    }
+    return UNKNOWN_SIZE_BYTES;
+  }
+
+  private static class Entry {
+    private final Image image;
+    private final long weight;
+
+    private Entry(Image image, long weight) {
+      this.image = image;
+      this.weight = weight;
+    }
+  }
+
+}
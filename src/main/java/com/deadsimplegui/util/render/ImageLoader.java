@@ -0,0 +1,231 @@
+package com.deadsimplegui.util.render;
+
+import com.deadsimplegui.util.Gui;
+import com.deadsimplegui.util.metrics.Counter;
+import com.deadsimplegui.util.metrics.Metrics;
+import com.deadsimplegui.util.metrics.Timer;
+import java.awt.Image;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.swing.SwingUtilities;
+
+/**
+ * The `ImageLoader` class exists to retrieve and decode the images referenced by a page in the
+ * background, so that a page can be displayed with placeholder images before its images have been
+ * retrieved. Each image is swapped into the displayed document as soon as it has been decoded.
+ * <p>
+ * Images are retrieved by a bounded pool of worker threads, and the number of concurrent requests
+ * made to a single host is limited so that a page referencing many images on the same host does
+ * not flood it. Loads beyond a host's limit wait in that host's queue rather than on a worker
+ * thread, so a slow host never holds up the images of other hosts. The loads started for a page,
+ * whether queued or running, are cancelled when the GUI navigates to another page.
+ * <p>
+ * Images are identified by their resolved URI and display size, so an image referenced many times,
+ * whether on one page or on every page, is retrieved and decoded once per size it is displayed at.
+ * Images are decoded at no more than the resolution they are displayed at.
+ */
+public class ImageLoader {
+  private static final Timer IMAGE_LOAD = Metrics.timer("image.load");
+  private static final Counter IMAGE_CACHE_HITS = Metrics.counter("imageCache.hit");
+  private static final Counter IMAGE_CACHE_MISSES = Metrics.counter("imageCache.miss");
+  private static final int DEFAULT_THREADS = 8;
+  private static final int DEFAULT_THREADS_PER_HOST = 4;
+  private final Gui gui;
+  private final int threadsPerHost;
+  private final ExecutorService executor;
+  private final Map<String, Host> hosts = new ConcurrentHashMap<>();
+  private final AtomicLong generation = new AtomicLong();
+  private final Map<URL, Load> inFlight = new ConcurrentHashMap<>();
+
+  public ImageLoader(Gui gui) {
+    this(gui, DEFAULT_THREADS, DEFAULT_THREADS_PER_HOST);
+  }
+
+  /**
+   * The `ImageLoader` class constructor.
+   *
+   * @param gui to load the images into.
+   * @param threads the maximum number of images retrieved concurrently.
+   * @param threadsPerHost the maximum number of images retrieved concurrently from a single host.
+   */
+  public ImageLoader(Gui gui, int threads, int threadsPerHost) {
+    this.gui = gui;
+    this.threadsPerHost = threadsPerHost;
+    AtomicInteger threadCount = new AtomicInteger();
+    this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+      Thread thread = new Thread(runnable, "deadsimplegui-image-" + threadCount.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * The `load` function returns the proxied URL the image at the supplied URI is referenced by in
+   * a displayed document. Every reference to the same URI at the same display size shares the same
+   * proxied URL and therefore the same entry in the GUI's image cache. The proxied URL is derived
+   * from the URI and size rather than remembered, so nothing is kept for an image once the image
+   * cache has evicted it.
+   * <p>
+   * When the image is not cached yet a placeholder image is cached under the proxied URL and the
+   * image is retrieved in the background, replacing the placeholder once it has been decoded. The
+   * displayed document is then refreshed so that the image is shown. Concurrent loads of the same
+   * URI are collapsed into a single retrieval.
+   *
+   * @param uri the URI to retrieve the image from.
+   * @param width the image will be displayed at, or 0 when unknown.
+   * @param height the image will be displayed at, or 0 when unknown.
+   * @return the proxied URL of the image.
+   */
+  public URL load(URI uri, int width, int height) {
+    URL proxiedUrl = proxiedUrlOf(width + "x" + height + " " + uri);
+    Image cached = gui.getImage(proxiedUrl);
+    if (cached == null) {
+      gui.putImage(proxiedUrl, ImageRenderer.PLACEHOLDER_IMAGE);
+    } else if (cached != ImageRenderer.PLACEHOLDER_IMAGE && cached != ImageRenderer.BROKEN_IMAGE) {
+      IMAGE_CACHE_HITS.increment();
+      return proxiedUrl;
+    }
+    IMAGE_CACHE_MISSES.increment();
+    Load load = new Load(proxiedUrl, uri, width, height, generation.get());
+    if (inFlight.putIfAbsent(proxiedUrl, load) == null) {
+      hosts.computeIfAbsent(String.valueOf(uri.getHost()), host -> new Host()).submit(load);
+    }
+    return proxiedUrl;
+  }
+
+  /**
+   * The `proxiedUrlOf` function derives the proxied URL of an image from the supplied key, using a
+   * name-based UUID so that the same key always maps to the same URL.
+   */
+  private static URL proxiedUrlOf(String key) {
+    try {
+      return new URL("http://127.0.0.1/"
+          + UUID.nameUUIDFromBytes(key.getBytes(StandardCharsets.UTF_8)) + ".img");
+    } catch (MalformedURLException e) {
+      throw new RuntimeException("Unable to proxy image " + key, e);
+    }
+  }
+
+  /**
+   * The `cancel` function abandons every image load that has been started. This is called when the
+   * GUI navigates away from the page that referenced the images.
+   */
+  public void cancel() {
+    long current = generation.incrementAndGet();
+    for (Host host : hosts.values()) {
+      host.clear(current);
+    }
+    for (Load load : inFlight.values()) {
+      if (load.loadGeneration != current && inFlight.remove(load.proxiedUrl, load)) {
+        load.cancel(true);
+      }
+    }
+  }
+
+  /**
+   * The `Host` class exists to limit the number of images retrieved concurrently from a single
+   * host. A load is only handed to the worker pool once one of the host's slots is free, and the
+   * next queued load takes over the slot once a worker thread is done with a load.
+   */
+  private class Host {
+    private final Deque<Load> queued = new ArrayDeque<>();
+    private int running;
+
+    private synchronized void submit(Load load) {
+      if (running < threadsPerHost) {
+        running++;
+        executor.execute(load);
+      } else {
+        queued.add(load);
+      }
+    }
+
+    private synchronized void done() {
+      Load next = queued.poll();
+      if (next != null) {
+        executor.execute(next);
+      } else {
+        running--;
+      }
+    }
+
+    private synchronized void clear(long current) {
+      for (Iterator<Load> iterator = queued.iterator(); iterator.hasNext();) {
+        Load load = iterator.next();
+        if (load.loadGeneration != current) {
+          iterator.remove();
+          inFlight.remove(load.proxiedUrl, load);
+        }
+      }
+    }
+  }
+
+  /**
+   * The `Load` class exists to retrieve a single image on a worker thread. It frees its host's slot
+   * once the worker thread is done with it, rather than once it is cancelled, since cancelling a
+   * running load does not stop a retrieval blocked on the network. A load cancelled after it was
+   * handed to the worker pool but before it started still runs, returning at once, so it frees its
+   * slot the same way. A load cancelled while queued by its host never held a slot.
+   */
+  private class Load extends FutureTask<Void> {
+    private final URL proxiedUrl;
+    private final URI uri;
+    private final long loadGeneration;
+
+    private Load(URL proxiedUrl, URI uri, int width, int height, long loadGeneration) {
+      super(() -> {
+        if (loadGeneration != generation.get()) {
+          return null;
+        }
+        Image image;
+        long start = System.nanoTime();
+        try {
+          if ("localhost".equals(uri.getHost())) {
+            image = gui.getInternalResourceLogic().readImage(uri, width, height);
+          } else {
+            image = gui.getExternalResourceLogic().readImage(uri, width, height);
+          }
+        } catch (Exception e) {
+          image = null;
+        }
+        IMAGE_LOAD.record(System.nanoTime() - start);
+        if (loadGeneration == generation.get()) {
+          gui.putImage(proxiedUrl, image != null ? image : ImageRenderer.BROKEN_IMAGE);
+          SwingUtilities.invokeLater(() -> gui.refreshImage(proxiedUrl));
+        }
+        return null;
+      });
+      this.proxiedUrl = proxiedUrl;
+      this.uri = uri;
+      this.loadGeneration = loadGeneration;
+    }
+
+    @Override
+    public void run() {
+      try {
+        super.run();
+      } finally {
+        hosts.get(String.valueOf(uri.getHost())).done();
+      }
+    }
+
+    @Override
+    protected void done() {
+      inFlight.remove(proxiedUrl, this);
+    }
+  }
+
+}
@@ -14,6 +14,12 @@ import java.net.URL;
  * displayed in the GUI when they are loaded into the GUI's image cache. Without doing so the
  * images will be displayed as broken.
  * <p>
+ * A placeholder image is cached immediately so that the page can be displayed without waiting,
+ * and the image itself is retrieved in the background by the GUI's `ImageLoader`. Every reference
+ * to the same image shares a single cache entry, and a shared broken image icon is displayed for
+ * images that could not be retrieved. Images are decoded at no more than the size declared by the
+ * IMG element's `width` and `height` attributes.
+ * <p>
  * Note: If an image URL's host is `localhost` then the image will be loaded from the application's
  * resources. You would want to do this if you desired to bundle images into the application. If
  * the image URL's host is not local host then the image data will be retrieved through the supplied ExternalResourceLoader.
@@ -21,26 +27,41 @@ import java.net.URL;
  * http://java-sl.com/tip_local_images.html
  */
 class ImageRenderer {
+  static final String BROKEN_IMAGE_SRC = "http://127.0.0.1/404_error_unknown_123_xyz.png";
+  static final Image PLACEHOLDER_IMAGE = createImage();
+  static final Image BROKEN_IMAGE = createBrokenImage();
 
-  static String loadImage(String imageSrc, HtmlPage history, Gui gui) throws MalformedURLException {
+  static String loadImage(
+      String imageSrc,
+      String width,
+      String height,
+      HtmlPage history,
+      Gui gui
+  ) throws MalformedURLException {
     try{
-      Image placeHolderImage = createImage();
-      String proxiedImageSrc = "http://127.0.0.1/" + gui.getImageCacheSize() + ".img";
-      gui.putImage(new URL(proxiedImageSrc), placeHolderImage);
-      Image image;
       HtmlUri imageUri = HtmlUri.getInstance(imageSrc, history);
-      if(!imageUri.getHost().equals("localhost")) {
-        image = gui.getExternalResourceLogic().readImage(imageUri.getUri());
-      } else {
-        image = gui.getInternalResourceLogic().readImage(imageUri.getUri());
-      }
-      gui.putImage(new URL(proxiedImageSrc), image);
-      return proxiedImageSrc;
+      return gui.getImageLoader()
+          .load(imageUri.getUri(), sizeOf(width), sizeOf(height))
+          .toString();
     } catch (Exception e) {
-      Image placeHolderImage = createImage();
-      String proxiedImageSrc = "http://127.0.0.1/404_error_unknown_123_xyz.png";
-      gui.putImage(new URL(proxiedImageSrc), placeHolderImage);
-      return proxiedImageSrc;
+      gui.putImage(new URL(BROKEN_IMAGE_SRC), BROKEN_IMAGE);
+      return BROKEN_IMAGE_SRC;
+    }
+  }
+
+  /**
+   * The `sizeOf` function parses the value of an IMG element's `width` or `height` attribute into
+   * pixels the same way Swing's `ImageView` does, returning 0 when Swing would ignore the attribute
+   * and display the image at its own size, such as for a value with a unit like `64px`.
+   */
+  private static int sizeOf(String attribute) {
+    if (attribute == null) {
+      return 0;
+    }
+    try {
+      return Math.max(0, Integer.parseInt(attribute));
+    } catch (NumberFormatException e) {
+      return 0;
     }
   }
 
@@ -58,4 +79,19 @@ class ImageRenderer {
     return img;
   }
 
+  private static Image createBrokenImage() {
+    BufferedImage img=new BufferedImage(100,50,BufferedImage.TYPE_INT_ARGB);
+    Graphics g=img.getGraphics();
+    ((Graphics2D)g).setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+    g.setColor(Color.LIGHT_GRAY);
+    g.fillRect(0,0,100,50);
+
+    g.setColor(Color.RED);
+    g.drawLine(35,10,65,40);
+    g.drawLine(65,10,35,40);
+    img.flush();
+
+    return img;
+  }
+
 }
@@ -0,0 +1,297 @@
+package com.deadsimplegui.util.render;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * The `SanitizingReader` exists to remove the parts of an HTML document that the GUI is unable to
+ * render while the document is being read, in a single pass and without allocating any memory per
+ * character read. Two kinds of markup are removed:
+ * <ul>
+ *   <li>SCRIPT elements along with their javascript, as it will not render anyways.</li>
+ *   <li>META elements within the HEAD element, because the GUI refuses to render HTML documents
+ *   that have un-closed META elements and it seems that most META elements have no closing
+ *   tag.</li>
+ * </ul>
+ * Tag names are matched case-insensitively, and a tag name only matches when it is followed by
+ * whitespace, a `/` or, for the SCRIPT and HEAD elements, a `>`. The characters that might begin a
+ * tag that is removed are held back until it is known whether the tag is removed.
+ * <p>
+ * Like a browser, a SCRIPT element ends at the first `</script` end tag, even within a javascript
+ * string, and a `>` within a quoted attribute value does not end a META element.
+ */
+class SanitizingReader extends FilterReader {
+  private static final char[] SCRIPT_OPEN = "<script".toCharArray();
+  private static final char[] SCRIPT_CLOSE = "</script".toCharArray();
+  private static final char[] HEAD_OPEN = "<head".toCharArray();
+  private static final char[] HEAD_CLOSE = "</head>".toCharArray();
+  private static final char[] META_OPEN = "<meta".toCharArray();
+  private final char[] input = new char[8192];
+  private int inputPos;
+  private int inputLen;
+  private boolean eof;
+
+  //the characters emitted that did not fit into the caller's buffer
+  private final char[] overflow = new char[32];
+  private int overflowPos;
+  private int overflowLen;
+  private char[] target;
+  private int targetPos;
+  private int targetEnd;
+
+  //the state of the SCRIPT element filter
+  private final char[] heldScript = new char[SCRIPT_OPEN.length];
+  private int scriptOpen;
+  private int scriptClose;
+  private boolean inScript;
+  private boolean inScriptClose;
+
+  //the state of the META element filter
+  private final char[] heldMeta = new char[META_OPEN.length];
+  private int headOpen;
+  private int headClose;
+  private boolean inHead;
+  private int metaOpen;
+  private boolean inMeta;
+  private char metaQuote;
+
+  private final char[] single = new char[1];
+  private long nanos;
+
+  SanitizingReader(Reader in) {
+    super(in);
+  }
+
+  @Override
+  public int read() throws IOException {
+    return read(single, 0, 1) == -1 ? -1 : single[0];
+  }
+
+  @Override
+  public int read(char[] cbuf, int off, int len) throws IOException {
+    if (len == 0) {
+      return 0;
+    }
+    long start = System.nanoTime();
+    long reading = 0;
+    target = cbuf;
+    targetPos = off;
+    targetEnd = off + len;
+    while (targetPos < targetEnd) {
+      if (overflowPos < overflowLen) {
+        int count = Math.min(overflowLen - overflowPos, targetEnd - targetPos);
+        System.arraycopy(overflow, overflowPos, cbuf, targetPos, count);
+        overflowPos += count;
+        targetPos += count;
+        continue;
+      }
+      if (inputPos == inputLen) {
+        if (eof || targetPos > off) {
+          break;
+        }
+        long readStart = System.nanoTime();
+        int read = in.read(input, 0, input.length);
+        reading += System.nanoTime() - readStart;
+        inputPos = 0;
+        inputLen = Math.max(read, 0);
+        if (read == -1) {
+          eof = true;
+          finish();
+        }
+        continue;
+      }
+      filterScript(input[inputPos++]);
+    }
+    target = null;
+    nanos += System.nanoTime() - start - reading;
+    int count = targetPos - off;
+    return count == 0 && eof ? -1 : count;
+  }
+
+  @Override
+  public long skip(long n) throws IOException {
+    char[] skipped = new char[(int) Math.min(n, 8192)];
+    long remaining = n;
+    while (remaining > 0) {
+      int read = read(skipped, 0, (int) Math.min(remaining, skipped.length));
+      if (read == -1) {
+        break;
+      }
+      remaining -= read;
+    }
+    return n - remaining;
+  }
+
+  @Override
+  public boolean ready() {
+    return overflowPos < overflowLen;
+  }
+
+  @Override
+  public boolean markSupported() {
+    return false;
+  }
+
+  @Override
+  public void mark(int readAheadLimit) throws IOException {
+    throw new IOException("mark() not supported");
+  }
+
+  @Override
+  public void reset() throws IOException {
+    throw new IOException("reset() not supported");
+  }
+
+  /**
+   * The `getNanos` function returns the time spent sanitizing the characters read so far, excluding
+   * the time spent reading them from the wrapped reader.
+   *
+   * @return the time spent in nanoseconds.
+   */
+  long getNanos() {
+    return nanos;
+  }
+
+  /**
+   * The `filterScript` function removes SCRIPT elements, passing every other character on to the
+   * `filterMeta` function.
+   */
+  private void filterScript(char c) {
+    if (inScriptClose) {
+      inScriptClose = c != '>';
+      return;
+    }
+    if (inScript) {
+      scriptClose = advance(SCRIPT_CLOSE, scriptClose, c);
+      if (scriptClose == SCRIPT_CLOSE.length + 1) {
+        inScript = false;
+        inScriptClose = c != '>';
+        scriptClose = 0;
+      }
+      return;
+    }
+    if (scriptOpen == SCRIPT_OPEN.length) {
+      if (c == '>' || c == '/' || Character.isWhitespace(c)) {
+        inScript = true;
+        scriptOpen = 0;
+        return;
+      }
+      releaseScript();
+    }
+    if (Character.toLowerCase(c) == SCRIPT_OPEN[scriptOpen]) {
+      heldScript[scriptOpen++] = c;
+      return;
+    }
+    releaseScript();
+    if (c == '<') {
+      heldScript[scriptOpen++] = c;
+      return;
+    }
+    filterMeta(c);
+  }
+
+  private void releaseScript() {
+    int held = scriptOpen;
+    scriptOpen = 0;
+    for (int i = 0; i < held; i++) {
+      filterMeta(heldScript[i]);
+    }
+  }
+
+  /**
+   * The `filterMeta` function removes META elements within the HEAD element, emitting every other
+   * character.
+   */
+  private void filterMeta(char c) {
+    headOpen = advance(HEAD_OPEN, headOpen, c);
+    if (headOpen == HEAD_OPEN.length + 1) {
+      headOpen = 0;
+      inHead = true;
+    }
+    headClose = advance(HEAD_CLOSE, headClose, c);
+    if (headClose == HEAD_CLOSE.length) {
+      headClose = 0;
+      inHead = false;
+    }
+
+    if (inMeta) {
+      if (metaQuote != 0) {
+        metaQuote = c == metaQuote ? 0 : metaQuote;
+      } else if (c == '"' || c == '\'') {
+        metaQuote = c;
+      } else if (c == '>') {
+        inMeta = false;
+      }
+      return;
+    }
+    if (metaOpen == META_OPEN.length) {
+      if (c == '/' || Character.isWhitespace(c)) {
+        inMeta = true;
+        metaOpen = 0;
+        return;
+      }
+      releaseMeta();
+    }
+    if (metaOpen > 0 && Character.toLowerCase(c) == META_OPEN[metaOpen]) {
+      heldMeta[metaOpen++] = c;
+      return;
+    }
+    releaseMeta();
+    if (c == '<' && inHead) {
+      heldMeta[metaOpen++] = c;
+      return;
+    }
+    emit(c);
+  }
+
+  private void releaseMeta() {
+    int held = metaOpen;
+    metaOpen = 0;
+    for (int i = 0; i < held; i++) {
+      emit(heldMeta[i]);
+    }
+  }
+
+  /**
+   * The `advance` function advances the supplied number of matched characters of the supplied tag
+   * by the supplied character. A tag name whose pattern does not end with `>` is fully matched once
+   * it is followed by whitespace, a `/` or a `>`, at which point the pattern's length plus one is
+   * returned. Patterns must only contain `<` as their first character.
+   */
+  private static int advance(char[] pattern, int matched, char c) {
+    if (matched == pattern.length) {
+      return c == '>' || c == '/' || Character.isWhitespace(c) ? matched + 1 : advance(pattern, 0, c);
+    }
+    if (Character.toLowerCase(c) == pattern[matched]) {
+      return matched + 1;
+    }
+    return c == '<' ? 1 : 0;
+  }
+
+  private void emit(char c) {
+    if (targetPos < targetEnd && overflowPos == overflowLen) {
+      target[targetPos++] = c;
+      return;
+    }
+    if (overflowPos == overflowLen) {
+      overflowPos = 0;
+      overflowLen = 0;
+    }
+    overflow[overflowLen++] = c;
+  }
+
+  /**
+   * The `finish` function releases the held characters once the end of the input is reached. The
+   * remainder of an unterminated SCRIPT or META element is removed.
+   */
+  private void finish() {
+    if (!inScript) {
+      releaseScript();
+    }
+    if (!inMeta) {
+      releaseMeta();
+    }
+  }
+
+}
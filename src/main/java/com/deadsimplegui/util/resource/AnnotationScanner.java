@@ -1,7 +1,9 @@
 package com.deadsimplegui.util.resource;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
 import java.lang.annotation.Annotation;
 import java.net.JarURLConnection;
@@ -13,6 +15,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.jar.JarEntry;
@@ -57,6 +60,7 @@ public class AnnotationScanner {
   public static void registerPackage(String packageName, Class annotation) {
     if (!INSTANCES.containsKey(packageName)) {
       INSTANCES.put(packageName, new AnnotationScanner(packageName, annotation));
+      PageScanner.invalidate();
     }
   }
 
@@ -96,38 +100,56 @@ public class AnnotationScanner {
   /**
    * This `scan` function will scan the provided directory for all classes that are annotated with
    * the AnnotationScanner instance's annotation class within the AnnotationScanner instance's
-   * package name.
+   * package name. The class files are read in parallel without loading any classes.
    *
-   * @param directory The directory to start with.
-   * @throws ClassNotFoundException when the process fails at any point.
+   * @param directory The package directory to start with.
+   * @return the names of the annotated classes.
    */
-  private void scan (File directory) throws ClassNotFoundException {
+  private List<String> scan (File directory) {
     if(!directory.exists() || !directory.isDirectory()) {
-      return;
+      return new ArrayList<>();
     }
+    final Map<File, String> classFiles = new LinkedHashMap<>();
+    listClassFiles(directory, packageName, classFiles);
+    final String descriptor = ClassFileReader.descriptorOf(annotation);
+    return classFiles
+        .entrySet()
+        .parallelStream()
+        .filter(classFile -> {
+          try (InputStream in = new FileInputStream(classFile.getKey())) {
+            return ClassFileReader.isAnnotatedWith(in, descriptor);
+          } catch (final IOException e) {
+            // unable to read the class file, so let the class loader decide.
+            return true;
+          }
+        })
+        .map(Map.Entry::getValue)
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * The `listClassFiles` function recursively lists all the class files within the supplied
+   * directory along with the name of the class each one defines.
+   *
+   * @param directory The directory to list.
+   * @param directoryPackage The package name of the supplied directory.
+   * @param classFiles The map to add the class files and their class names to.
+   */
+  private static void listClassFiles (
+      File directory,
+      String directoryPackage,
+      Map<File, String> classFiles
+  ) {
     final String[] files = directory.list();
     if(files == null) {
       return;
     }
-    final String directoryPath = directory.getAbsolutePath().replace('/', '.');
     for (final String file : files) {
+      File child = new File(directory, file);
       if (file.endsWith(".class")) {
-        try {
-          Class aClass = Class.forName(directoryPath.substring(directoryPath.indexOf(packageName))
-              + '.' + file.substring(0, file.length() - 6)
-          );
-          if (isAnnotatedWith(aClass)) {
-            classes.add(aClass);
-          }
-        } catch (final NoClassDefFoundError e) {
-          // do nothing. this class hasn't been found by the
-          // loader, and we don't care.
-        }
-      } else {
-        File potentialDirectory = new File(directory, file);
-        if (potentialDirectory.isDirectory()) {
-          scan(potentialDirectory);
-        }
+        classFiles.put(child, directoryPackage + '.' + file.substring(0, file.length() - 6));
+      } else if (child.isDirectory()) {
+        listClassFiles(child, directoryPackage + '.' + file, classFiles);
       }
     }
   }
@@ -135,35 +157,78 @@ public class AnnotationScanner {
   /**
    * This `scan` function will scan the provided JAR for all classes that are annotated with the
    * AnnotationScanner instance's annotation class within the AnnotationScanner instance's package
-   * name.
+   * name. The JAR entries are read in parallel without loading any classes.
    *
    * @param connection the connection to the JAR.
-   * @throws ClassNotFoundException when unable to load an existing file from the JAR.
+   * @return the names of the annotated classes.
    * @throws IOException when unable to correctly read from the JAR file.
    */
-  private void scan (JarURLConnection connection) throws ClassNotFoundException, IOException {
+  private List<String> scan (JarURLConnection connection) throws IOException {
     final JarFile jarFile = connection.getJarFile();
-    final Enumeration<JarEntry> entries = jarFile.entries();
-    String name;
-
-    for (JarEntry jarEntry; entries.hasMoreElements()
-        && ((jarEntry = entries.nextElement()) != null);) {
-      name = jarEntry.getName();
+    final String packagePath = packageName.replace('.', '/') + '/';
+    final String descriptor = ClassFileReader.descriptorOf(annotation);
+    final List<JarEntry> entries = new ArrayList<>();
+    for (Enumeration<JarEntry> enumeration = jarFile.entries(); enumeration.hasMoreElements();) {
+      JarEntry jarEntry = enumeration.nextElement();
+      if (jarEntry.getName().endsWith(".class") && jarEntry.getName().startsWith(packagePath)) {
+        entries.add(jarEntry);
+      }
+    }
+    return entries
+        .parallelStream()
+        .filter(jarEntry -> {
+          try (InputStream in = jarFile.getInputStream(jarEntry)) {
+            return ClassFileReader.isAnnotatedWith(in, descriptor);
+          } catch (final IOException e) {
+            // unable to read the class file, so let the class loader decide.
+            return true;
+          }
+        })
+        .map(jarEntry -> jarEntry.getName()
+            .substring(0, jarEntry.getName().length() - 6)
+            .replace('/', '.'))
+        .collect(Collectors.toList());
+  }
 
-      if (name.contains(".class")) {
-        name = name.substring(0, name.length() - 6).replace('/', '.');
+  /**
+   * The `load` function loads the supplied classes and adds the ones that are annotated with the
+   * AnnotationScanner instance's annotation class to this instance's classes.
+   *
+   * @param classNames The names of the classes to load.
+   * @param classLoader The class loader to load the classes with.
+   * @throws ClassNotFoundException when unable to load an existing class.
+   */
+  private void load (List<String> classNames, ClassLoader classLoader)
+      throws ClassNotFoundException {
+    for (String className : classNames) {
+      try {
+        Class<?> aClass = Class.forName(className, true, classLoader);
+        if (isAnnotatedWith(aClass)) {
+          classes.add(aClass);
+        }
+      } catch (final NoClassDefFoundError e) {
+        // do nothing. this class hasn't been found by the
+        // loader, and we don't care.
+      }
+    }
+  }
 
-        if (name.contains(packageName)) {
-          try {
-            Class aClass = Class.forName(name);
-            if (isAnnotatedWith(aClass)) {
-              classes.add(Class.forName(name));
-            }
-          } catch(final NoClassDefFoundError e) {
-            // do nothing. this class hasn't been found by the
-            // loader, and we don't care.
-          }
+  /**
+   * The `loadIndexed` function will load the supplied classes listed in the route index generated
+   * by the `UrlBindingProcessor`, ignoring any that no longer exist because the index is stale.
+   *
+   * @param classNames The names of the indexed classes to load.
+   * @param classLoader The class loader to load the classes with.
+   */
+  private void loadIndexed (List<String> classNames, ClassLoader classLoader) {
+    for (String className : classNames) {
+      try {
+        Class<?> aClass = Class.forName(className, true, classLoader);
+        if (isAnnotatedWith(aClass)) {
+          classes.add(aClass);
         }
+      } catch (final ClassNotFoundException | NoClassDefFoundError e) {
+        // do nothing. the index is stale for this class, and we don't care.
       }
     }
   }
@@ -171,7 +236,11 @@ public class AnnotationScanner {
   /**
    * Attempts to list all the classes that are annotated with the AnnotationScanner instance's
    * annotation class within the AnnotationScanner instance's package name as determined by the
-   * context class loader.
+   * context class loader. Each classpath entry that contains a route index generated by the
+   * `UrlBindingProcessor` contributes its indexed classes instead of being scanned, while every
+   * other entry is scanned, reusing the results from the `ScanCache` for as long as that entry
+   * remains unchanged. This keeps a package that is split across entries complete even when only
+   * some of them are indexed.
    *
    * @return a list of classes.
    */
@@ -192,40 +261,59 @@ public class AnnotationScanner {
         throw exception;
       }
 
-      final Enumeration<URL> resources = classLoader.getResources(packageName.replace('.', '/'));
+      final Map<String, List<String>> indexed = UrlBinding.class.equals(annotation)
+          ? RouteIndex.getClassNames(classLoader, packageName)
+          : new HashMap<>();
+      final String packagePath = packageName.replace('.', '/');
+      final Enumeration<URL> resources = classLoader.getResources(packagePath);
       URLConnection connection;
 
       for (URL url; resources.hasMoreElements() && ((url = resources.nextElement()) != null);) {
-        try {
-          connection = url.openConnection();
+        List<String> classNames = indexed.remove(RouteIndex.rootOf(url, packagePath));
+        if (classNames != null) {
+          loadIndexed(classNames, classLoader);
+          continue;
+        }
+        final String cacheKey = annotation.getName() + '|' + url;
+        final String fingerprint = ScanCache.fingerprint(url);
+        classNames = ScanCache.get(cacheKey, fingerprint);
+        if (classNames == null) {
+          try {
+            connection = url.openConnection();
 
-          if (connection instanceof JarURLConnection) {
-            try {
-              scan((JarURLConnection) connection);
-            } catch (final ClassNotFoundException ex) {
-              exception = new RuntimeException(ex);
-            }
-          } else {
-            try {
-              scan(new File(URLDecoder.decode(url.getPath(), UTF_8.name())));
-            } catch(final ClassNotFoundException ex) {
-              exception = new RuntimeException(ex);
-            } catch (final UnsupportedEncodingException ex) {
-              exception = new RuntimeException(new ClassNotFoundException(
-                  packageName + " does not appear to be a valid package (Unsupported encoding)",
-                  ex
-              ));
-              throw exception;
+            if (connection instanceof JarURLConnection) {
+              classNames = scan((JarURLConnection) connection);
+            } else {
+              try {
+                classNames = scan(new File(URLDecoder.decode(url.getPath(), UTF_8.name())));
+              } catch (final UnsupportedEncodingException ex) {
+                exception = new RuntimeException(new ClassNotFoundException(
+                    packageName + " does not appear to be a valid package (Unsupported encoding)",
+                    ex
+                ));
+                throw exception;
+              }
             }
+          } catch (final IOException ex) {
+            exception = new RuntimeException(new ClassNotFoundException(
+                "IOException was thrown when trying to get all resources for " + packageName,
+                ex
+            ));
+            throw exception;
           }
-        } catch (final IOException ex) {
-          exception = new RuntimeException(new ClassNotFoundException(
-              "IOException was thrown when trying to get all resources for " + packageName,
-              ex
-          ));
-          throw exception;
+          ScanCache.put(cacheKey, fingerprint, classNames);
         }
+        try {
+          load(classNames, classLoader);
+        } catch (final ClassNotFoundException ex) {
+          exception = new RuntimeException(ex);
+        }
+      }
+      // a JAR without directory entries has no package resource, but its index still lists it.
+      for (final List<String> classNames : indexed.values()) {
+        loadIndexed(classNames, classLoader);
       }
+      ScanCache.save();
     } catch (final NullPointerException ex) {
       exception = new RuntimeException(new ClassNotFoundException(
           packageName + " does not appear to be a valid package (Null pointer exception)",
@@ -243,6 +331,16 @@ public class AnnotationScanner {
     return classes;
   }
 
+  /**
+   * The `setCacheDirectory` function changes the directory that the results of scanning packages
+   * are cached in between launches of the application.
+   *
+   * @param cacheDirectory to cache the scan results in, or null to disable the cache.
+   */
+  public static void setCacheDirectory(File cacheDirectory) {
+    ScanCache.setDirectory(cacheDirectory);
+  }
+
   public String getPackageName() {
     return packageName;
   }
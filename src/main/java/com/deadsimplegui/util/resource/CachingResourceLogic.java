@@ -0,0 +1,643 @@
+package com.deadsimplegui.util.resource;
+
+import com.deadsimplegui.util.metrics.Counter;
+import com.deadsimplegui.util.metrics.Metrics;
+import java.awt.Image;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The `CachingResourceLogic` class decorates an `ExternalResourceLogic` with a size-bounded HTTP
+ * cache stored on disk. Responses to GET requests are stored according to their `Cache-Control` and
+ * `Expires` headers and are served from disk while they are fresh. Once stale, a response that
+ * carries an `ETag` or `Last-Modified` validator is revalidated with `If-None-Match` or
+ * `If-Modified-Since`, and a `304 Not Modified` answer is served from disk. The least recently used
+ * responses are evicted when the cache grows beyond its size limit, and a response larger than the
+ * limit is never stored. Responses that vary by any request header other than `Accept-Encoding`,
+ * which is always sent with the same value, are never stored.
+ * <p>
+ * It is installed through `GuiBuilder.setExternalResourceLogic`. The hits and misses of every
+ * instance are also reported through `Metrics`, along with the total size of their cached bodies.
+ */
+public class CachingResourceLogic implements ResourceLogic {
+  private static final String BODY = ".body";
+  private static final String META = ".meta";
+  private static final int BUFFER_SIZE = 8192;
+  private static final Counter HITS = Metrics.counter("httpCache.hit");
+  private static final Counter MISSES = Metrics.counter("httpCache.miss");
+  private static final Counter REVALIDATIONS = Metrics.counter("httpCache.revalidation");
+  private static final Counter BYTES_FROM_CACHE = Metrics.counter("httpCache.bytesFromCache");
+  private static final Counter BYTES_FROM_NETWORK = Metrics.counter("httpCache.bytesFromNetwork");
+  private static final Set<CachingResourceLogic> INSTANCES =
+      Collections.newSetFromMap(new WeakHashMap<>());
+  private final ExternalResourceLogic delegate;
+  private final File directory;
+  private final long maxBytes;
+  private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private long totalBytes;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder revalidations = new LongAdder();
+  private final LongAdder bytesFromCache = new LongAdder();
+  private final LongAdder bytesFromNetwork = new LongAdder();
+
+  static {
+    Metrics.gauge("httpCache.bytes", CachingResourceLogic::sizeOfInstances);
+  }
+
+  public CachingResourceLogic(File directory, long maxBytes) {
+    this(new ExternalResourceLogic(), directory, maxBytes);
+  }
+
+  /**
+   * The `CachingResourceLogic` class constructor. Responses already stored in the supplied
+   * directory by a previous launch are reused.
+   *
+   * @param delegate to retrieve responses that can not be served from the cache with.
+   * @param directory to store the cached responses in.
+   * @param maxBytes the maximum total size of the cached response bodies.
+   */
+  public CachingResourceLogic(ExternalResourceLogic delegate, File directory, long maxBytes) {
+    this.delegate = delegate;
+    this.directory = directory;
+    this.maxBytes = maxBytes;
+    load();
+    synchronized (INSTANCES) {
+      INSTANCES.add(this);
+    }
+  }
+
+  /**
+   * The `sizeOfInstances` function returns the total size of the cached response bodies of every
+   * instance that is still in use. Instances are held weakly, so an instance that is no longer in
+   * use stops being reported once it has been garbage collected.
+   */
+  private static long sizeOfInstances() {
+    long size = 0;
+    synchronized (INSTANCES) {
+      for (CachingResourceLogic instance : INSTANCES) {
+        size += instance.getSize();
+      }
+    }
+    return size;
+  }
+
+  @Override
+  public byte[] get(URI uri) {
+    try (ResourceContent content = open(uri)) {
+      ByteArrayOutputStream body = new ByteArrayOutputStream(BUFFER_SIZE);
+      copy(content.getInputStream(), body);
+      return body.toByteArray();
+    } catch (IOException e) {
+      throw new RuntimeException("Unable to retrieve data from " + uri, e);
+    }
+  }
+
+  @Override
+  public byte[] post(URI uri, Map<String, String> params) {
+    return delegate.post(uri, params);
+  }
+
+  @Override
+  public ResourceContent open(URI uri, Map<String, String> params) {
+    return delegate.open(uri, params);
+  }
+
+  @Override
+  public Image readImage(URI uri) throws IOException {
+    return readImage(uri, 0, 0);
+  }
+
+  @Override
+  public Image readImage(URI uri, int width, int height) throws IOException {
+    try (ResourceContent content = open(uri)) {
+      return ImageDecoder.decode(content.getInputStream(), width, height);
+    }
+  }
+
+  @Override
+  public ResourceContent open(URI uri) {
+    String key = keyOf(uri);
+    Entry entry;
+    synchronized (this) {
+      entry = entries.get(key);
+    }
+    long now = System.currentTimeMillis();
+    if (entry != null && entry.expires > now) {
+      ResourceContent cached = read(key, entry);
+      if (cached != null) {
+        hit(entry.size);
+        return cached;
+      }
+    }
+
+    Map<String, String> headers = new HashMap<>();
+    if (entry != null && entry.etag != null) {
+      headers.put("If-None-Match", entry.etag);
+    }
+    if (entry != null && entry.lastModified != null) {
+      headers.put("If-Modified-Since", entry.lastModified);
+    }
+    ExternalResponse response = delegate.execute(uri, null, headers);
+
+    if (response.getStatusCode() == 304 && entry != null) {
+      close(response.getContent());
+      long expires = expiresOf(response, now);
+      Entry revalidated = entry.revalidate(expires == Long.MIN_VALUE ? now : expires);
+      ResourceContent cached = read(key, revalidated);
+      if (cached != null) {
+        store(key, revalidated);
+        revalidations.increment();
+        REVALIDATIONS.increment();
+        hit(entry.size);
+        return cached;
+      }
+      response = delegate.execute(uri, null, Collections.emptyMap());
+    }
+
+    misses.increment();
+    MISSES.increment();
+    long expires = expiresOf(response, now);
+    String etag = response.getHeader("ETag");
+    String lastModified = response.getHeader("Last-Modified");
+    if (response.getStatusCode() != 200 || expires == Long.MIN_VALUE
+        || (expires <= now && etag == null && lastModified == null)
+        || isVaried(response)
+        || response.getContent().getContentLength() > maxBytes) {
+      return ExternalResourceLogic.contentOf(response, uri);
+    }
+    ResourceContent content = response.getContent();
+    return write(key, content, new Entry(
+        uri.toString(),
+        content.getContentType(),
+        etag,
+        lastModified,
+        expires,
+        0
+    ));
+  }
+
+  private void hit(long size) {
+    hits.increment();
+    HITS.increment();
+    bytesFromCache.add(size);
+    BYTES_FROM_CACHE.add(size);
+  }
+
+  /**
+   * The `invalidate` function removes the cached response for the supplied URI.
+   *
+   * @param uri of the cached response to remove.
+   */
+  public synchronized void invalidate(URI uri) {
+    remove(keyOf(uri));
+  }
+
+  /**
+   * The number of requests served from the cache, including those revalidated with the server.
+   */
+  public long getHits() {
+    return hits.sum();
+  }
+
+  /**
+   * The number of requests whose response had to be retrieved from the server.
+   */
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  /**
+   * The number of stale responses that the server confirmed were unchanged.
+   */
+  public long getRevalidations() {
+    return revalidations.sum();
+  }
+
+  /**
+   * The number of response body bytes served from the cache.
+   */
+  public long getBytesFromCache() {
+    return bytesFromCache.sum();
+  }
+
+  /**
+   * The number of response body bytes retrieved from the server and stored in the cache.
+   */
+  public long getBytesFromNetwork() {
+    return bytesFromNetwork.sum();
+  }
+
+  /**
+   * The total size of the cached response bodies.
+   */
+  public synchronized long getSize() {
+    return totalBytes;
+  }
+
+  /**
+   * The `expiresOf` function determines when the supplied response becomes stale from its
+   * `Cache-Control` and `Expires` headers.
+   *
+   * @return the time the response becomes stale, or `Long.MIN_VALUE` if it must not be stored.
+   */
+  private static long expiresOf(ExternalResponse response, long now) {
+    String cacheControl = response.getHeader("Cache-Control");
+    if (cacheControl != null) {
+      boolean noCache = false;
+      long maxAge = -1;
+      for (String directive : cacheControl.toLowerCase(Locale.ROOT).split(",")) {
+        String trimmed = directive.trim();
+        if (trimmed.equals("no-store")) {
+          return Long.MIN_VALUE;
+        } else if (trimmed.equals("no-cache")) {
+          noCache = true;
+        } else if (trimmed.startsWith("max-age=")) {
+          try {
+            maxAge = Long.parseLong(trimmed.substring(8).replace("\"", ""));
+          } catch (NumberFormatException e) {
+            maxAge = 0;
+          }
+        }
+      }
+      if (noCache) {
+        return now;
+      }
+      if (maxAge >= 0) {
+        return now + maxAge * 1000;
+      }
+    }
+    String expires = response.getHeader("Expires");
+    if (expires != null) {
+      try {
+        return ZonedDateTime.parse(expires, DateTimeFormatter.RFC_1123_DATE_TIME)
+            .toInstant()
+            .toEpochMilli();
+      } catch (DateTimeParseException e) {
+        return now;
+      }
+    }
+    return now;
+  }
+
+  /**
+   * The `isVaried` function determines whether the supplied response varies by a request header
+   * other than `Accept-Encoding`, in which case it may not be served for a request that differs in
+   * that header.
+   *
+   * @return true when the response must not be stored.
+   */
+  private static boolean isVaried(ExternalResponse response) {
+    String vary = response.getHeader("Vary");
+    if (vary == null) {
+      return false;
+    }
+    for (String header : vary.split(",")) {
+      String trimmed = header.trim();
+      if (!trimmed.isEmpty() && !trimmed.equalsIgnoreCase("Accept-Encoding")) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * The `write` function copies the supplied content to the cache and records its entry, evicting
+   * the least recently used entries if the cache has grown beyond its size limit. Copying stops
+   * once the content exceeds the size limit or fails, and a body shorter than its `Content-Length`
+   * was cut short by the connection closing. In either case the content is not stored and
+   * is returned by replaying the part already copied followed by the remainder of the response, so
+   * the response is never retrieved twice. A failure to read the response is then seen by the
+   * caller once it reaches the remainder.
+   *
+   * @return the content.
+   */
+  private ResourceContent write(String key, ResourceContent content, Entry entry) {
+    File temporary;
+    try {
+      if (!directory.isDirectory() && !directory.mkdirs()) {
+        return content;
+      }
+      temporary = File.createTempFile(key, ".tmp", directory);
+    } catch (IOException e) {
+      return content;
+    }
+    InputStream in = content.getInputStream();
+    byte[] buffer = new byte[BUFFER_SIZE];
+    int unwritten = 0;
+    long size = 0;
+    boolean failed = false;
+    try (OutputStream out = new FileOutputStream(temporary)) {
+      for (int read; size <= maxBytes && (read = in.read(buffer)) != -1;) {
+        unwritten = read;
+        out.write(buffer, 0, read);
+        unwritten = 0;
+        size += read;
+      }
+    } catch (IOException e) {
+      failed = true;
+    }
+    long contentLength = content.getContentLength();
+    if (failed || size > maxBytes || (contentLength >= 0 && size != contentLength)) {
+      return replay(temporary, Arrays.copyOf(buffer, unwritten), content);
+    }
+    Entry stored = entry.resize(size);
+    ResourceContent cached;
+    synchronized (this) {
+      try {
+        Files.move(temporary.toPath(), new File(directory, key + BODY).toPath(),
+            StandardCopyOption.REPLACE_EXISTING);
+      } catch (IOException e) {
+        return replay(temporary, new byte[0], content);
+      }
+      store(key, stored);
+      //opened under the same lock, so the body can not be evicted before it is read
+      cached = read(key, stored);
+    }
+    close(content);
+    bytesFromNetwork.add(size);
+    BYTES_FROM_NETWORK.add(size);
+    if (cached == null) {
+      throw new RuntimeException("Unable to read the cached response of " + entry.uri);
+    }
+    return cached;
+  }
+
+  /**
+   * The `replay` function returns the content of a response that could not be stored, by reading
+   * the part already copied to the supplied file, then the supplied bytes that were read but not
+   * copied, followed by the rest of the response. The file is deleted once the returned content is
+   * closed.
+   */
+  private static ResourceContent replay(File copied, byte[] unwritten, ResourceContent remainder) {
+    InputStream prefix;
+    try {
+      prefix = new SequenceInputStream(
+          new FileInputStream(copied),
+          new ByteArrayInputStream(unwritten)
+      );
+    } catch (FileNotFoundException e) {
+      copied.delete();
+      close(remainder);
+      throw new RuntimeException("Unable to read the partly cached response " + copied, e);
+    }
+    return new ResourceContent(
+        new SequenceInputStream(prefix, remainder.getInputStream()) {
+          @Override
+          public void close() throws IOException {
+            try {
+              super.close();
+              remainder.close();
+            } finally {
+              copied.delete();
+            }
+          }
+        },
+        remainder.getContentType(),
+        remainder.getCharset(),
+        remainder.getContentLength()
+    );
+  }
+
+  /**
+   * The `store` function records the supplied entry, persisting its metadata next to its body.
+   */
+  private void store(String key, Entry entry) {
+    try (OutputStream out = new FileOutputStream(new File(directory, key + META))) {
+      entry.toProperties().store(out, null);
+    } catch (IOException e) {
+      //swallow, the entry will be kept in memory for this launch only.
+    }
+    synchronized (this) {
+      Entry previous = entries.put(key, entry);
+      if (previous != null) {
+        totalBytes -= previous.size;
+      }
+      totalBytes += entry.size;
+      evict();
+    }
+  }
+
+  /**
+   * The `read` function opens the cached body of the supplied entry.
+   *
+   * The body is opened while holding the same lock that bodies are replaced and evicted under, so
+   * it is never deleted between being looked up and opened.
+   *
+   * @return the cached body, or null when it is no longer on disk.
+   */
+  private ResourceContent read(String key, Entry entry) {
+    File body = new File(directory, key + BODY);
+    InputStream inputStream;
+    synchronized (this) {
+      try {
+        inputStream = new FileInputStream(body);
+      } catch (FileNotFoundException e) {
+        remove(key);
+        return null;
+      }
+    }
+    new File(directory, key + META).setLastModified(System.currentTimeMillis());
+    return new ResourceContent(
+        inputStream,
+        entry.contentType,
+        ResourceContent.charsetOf(entry.contentType, StandardCharsets.UTF_8),
+        entry.size
+    );
+  }
+
+  private void evict() {
+    Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+    List<String> evicted = new ArrayList<>();
+    while (totalBytes > maxBytes && iterator.hasNext()) {
+      Map.Entry<String, Entry> eldest = iterator.next();
+      evicted.add(eldest.getKey());
+    }
+    for (String key : evicted) {
+      if (totalBytes <= maxBytes) {
+        break;
+      }
+      remove(key);
+    }
+  }
+
+  private void remove(String key) {
+    Entry removed = entries.remove(key);
+    if (removed != null) {
+      totalBytes -= removed.size;
+    }
+    new File(directory, key + BODY).delete();
+    new File(directory, key + META).delete();
+  }
+
+  /**
+   * The `load` function reads the entries stored by a previous launch, ordering them by the last
+   * time they were used.
+   */
+  private void load() {
+    File[] metas = directory.listFiles((dir, name) -> name.endsWith(META));
+    if (metas == null) {
+      return;
+    }
+    Arrays.sort(metas, (a, b) -> Long.compare(a.lastModified(), b.lastModified()));
+    synchronized (this) {
+      for (File meta : metas) {
+        String key = meta.getName().substring(0, meta.getName().length() - META.length());
+        Properties properties = new Properties();
+        try (InputStream in = new FileInputStream(meta)) {
+          properties.load(in);
+          Entry entry = Entry.fromProperties(properties);
+          if (new File(directory, key + BODY).length() != entry.size) {
+            remove(key);
+            continue;
+          }
+          entries.put(key, entry);
+          totalBytes += entry.size;
+        } catch (IOException | RuntimeException e) {
+          remove(key);
+        }
+      }
+      evict();
+    }
+  }
+
+  private static long copy(InputStream in, OutputStream out) throws IOException {
+    return copy(in, out, Long.MAX_VALUE);
+  }
+
+  /**
+   * The `copy` function copies the supplied input to the supplied output until it ends or until
+   * more than the supplied limit has been copied.
+   *
+   * @return the number of bytes copied, which is greater than the limit when the input was not
+   *         copied to its end.
+   */
+  private static long copy(InputStream in, OutputStream out, long limit) throws IOException {
+    byte[] buffer = new byte[BUFFER_SIZE];
+    long copied = 0;
+    for (int read; copied <= limit && (read = in.read(buffer)) != -1;) {
+      out.write(buffer, 0, read);
+      copied += read;
+    }
+    return copied;
+  }
+
+  private static void close(ResourceContent content) {
+    try (ResourceContent closing = content) {
+      copy(closing.getInputStream(), new ByteArrayOutputStream());
+    } catch (IOException e) {
+      //swallow, the response is being discarded.
+    }
+  }
+
+  private static String keyOf(URI uri) {
+    try {
+      byte[] digest = MessageDigest
+          .getInstance("SHA-256")
+          .digest(uri.toString().getBytes(StandardCharsets.UTF_8));
+      StringBuilder key = new StringBuilder(digest.length * 2);
+      for (byte b : digest) {
+        key.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+      }
+      return key.toString();
+    } catch (NoSuchAlgorithmException e) {
+      //this will never happen, every JVM is required to support SHA-256.
+      throw new RuntimeException(e);
+    }
+  }
+
+  /**
+   * The `Entry` class holds the metadata of a cached response.
+   */
+  private static class Entry {
+    private final String uri;
+    private final String contentType;
+    private final String etag;
+    private final String lastModified;
+    private final long expires;
+    private final long size;
+
+    private Entry(
+        String uri,
+        String contentType,
+        String etag,
+        String lastModified,
+        long expires,
+        long size
+    ) {
+      this.uri = uri;
+      this.contentType = contentType;
+      this.etag = etag;
+      this.lastModified = lastModified;
+      this.expires = expires;
+      this.size = size;
+    }
+
+    private Entry resize(long newSize) {
+      return new Entry(uri, contentType, etag, lastModified, expires, newSize);
+    }
+
+    private Entry revalidate(long newExpires) {
+      return new Entry(uri, contentType, etag, lastModified, newExpires, size);
+    }
+
+    private Properties toProperties() {
+      Properties properties = new Properties();
+      properties.setProperty("uri", uri);
+      properties.setProperty("expires", Long.toString(expires));
+      properties.setProperty("size", Long.toString(size));
+      if (contentType != null) {
+        properties.setProperty("contentType", contentType);
+      }
+      if (etag != null) {
+        properties.setProperty("etag", etag);
+      }
+      if (lastModified != null) {
+        properties.setProperty("lastModified", lastModified);
+      }
+      return properties;
+    }
+
+    private static Entry fromProperties(Properties properties) {
+      return new Entry(
+          properties.getProperty("uri"),
+          properties.getProperty("contentType"),
+          properties.getProperty("etag"),
+          properties.getProperty("lastModified"),
+          Long.parseLong(properties.getProperty("expires")),
+          Long.parseLong(properties.getProperty("size"))
+      );
+    }
+  }
+
+}
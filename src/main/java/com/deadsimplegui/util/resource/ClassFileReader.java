@@ -0,0 +1,159 @@
+package com.deadsimplegui.util.resource;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * The `ClassFileReader` class exists to check a class for an annotation by reading the class file
+ * directly instead of loading the class. Loading a class runs its static initializers and keeps it
+ * in memory for the life of the application, which is wasteful for the many classes in a scanned
+ * package that are never used.
+ * <p>
+ * Only the constant pool and the `RuntimeVisibleAnnotations` attribute of the class are
+ * interpreted, everything else is skipped over. See chapter 4 of the Java Virtual Machine
+ * Specification for the layout of the class file.
+ */
+class ClassFileReader {
+  private static final int MAGIC = 0xCAFEBABE;
+  private static final String RUNTIME_VISIBLE_ANNOTATIONS = "RuntimeVisibleAnnotations";
+
+  private ClassFileReader() {
+  }
+
+  /**
+   * The `descriptorOf` function returns the type descriptor of the supplied annotation class as it
+   * appears in a class file's constant pool.
+   *
+   * @param annotation to describe.
+   * @return the type descriptor, such as `Lcom/deadsimplegui/util/resource/UrlBinding;`.
+   */
+  static String descriptorOf(Class<?> annotation) {
+    return "L" + annotation.getName().replace('.', '/') + ";";
+  }
+
+  /**
+   * The `isAnnotatedWith` function reads the supplied class file and checks to see if the class
+   * is directly annotated with the annotation of the supplied type descriptor.
+   *
+   * @param classFile the class file's contents, which will not be closed.
+   * @param descriptor of the annotation to check for.
+   * @return true if the class is annotated with the supplied annotation.
+   * @throws IOException when the class file cannot be read or is malformed.
+   */
+  static boolean isAnnotatedWith(InputStream classFile, String descriptor) throws IOException {
+    DataInputStream in = new DataInputStream(new BufferedInputStream(classFile));
+    if (in.readInt() != MAGIC) {
+      throw new IOException("Not a class file.");
+    }
+    skip(in, 4);
+
+    int constantPoolCount = in.readUnsignedShort();
+    String[] utf8 = new String[constantPoolCount];
+    boolean referencesDescriptor = false;
+    for (int i = 1; i < constantPoolCount; i++) {
+      int tag = in.readUnsignedByte();
+      switch (tag) {
+        case 1:
+          utf8[i] = in.readUTF();
+          referencesDescriptor |= descriptor.equals(utf8[i]);
+          break;
+        case 7: case 8: case 16: case 19: case 20:
+          skip(in, 2);
+          break;
+        case 15:
+          skip(in, 3);
+          break;
+        case 3: case 4: case 9: case 10: case 11: case 12: case 17: case 18:
+          skip(in, 4);
+          break;
+        case 5: case 6:
+          skip(in, 8);
+          i++;
+          break;
+        default:
+          throw new IOException("Unknown constant pool tag " + tag + ".");
+      }
+    }
+    if (!referencesDescriptor) {
+      return false;
+    }
+
+    //access flags, this class and super class
+    skip(in, 6);
+    skip(in, 2 * in.readUnsignedShort());
+    skipMembers(in);
+    skipMembers(in);
+
+    for (int attributes = in.readUnsignedShort(); attributes > 0; attributes--) {
+      String name = utf8[in.readUnsignedShort()];
+      int length = in.readInt();
+      if (!RUNTIME_VISIBLE_ANNOTATIONS.equals(name)) {
+        skip(in, length);
+        continue;
+      }
+      for (int annotations = in.readUnsignedShort(); annotations > 0; annotations--) {
+        if (descriptor.equals(utf8[in.readUnsignedShort()])) {
+          return true;
+        }
+        skipElementValuePairs(in);
+      }
+    }
+    return false;
+  }
+
+  /**
+   * The `skipMembers` function skips over the fields or methods table of a class file.
+   */
+  private static void skipMembers(DataInputStream in) throws IOException {
+    for (int members = in.readUnsignedShort(); members > 0; members--) {
+      //access flags, name and descriptor
+      skip(in, 6);
+      for (int attributes = in.readUnsignedShort(); attributes > 0; attributes--) {
+        skip(in, 2);
+        skip(in, in.readInt());
+      }
+    }
+  }
+
+  private static void skipElementValuePairs(DataInputStream in) throws IOException {
+    for (int pairs = in.readUnsignedShort(); pairs > 0; pairs--) {
+      skip(in, 2);
+      skipElementValue(in);
+    }
+  }
+
+  private static void skipElementValue(DataInputStream in) throws IOException {
+    int tag = in.readUnsignedByte();
+    switch (tag) {
+      case 'e':
+        skip(in, 4);
+        break;
+      case '@':
+        skip(in, 2);
+        skipElementValuePairs(in);
+        break;
+      case '[':
+        for (int values = in.readUnsignedShort(); values > 0; values--) {
+          skipElementValue(in);
+        }
+        break;
+      default:
+        skip(in, 2);
+        break;
+    }
+  }
+
+  private static void skip(DataInputStream in, int bytes) throws IOException {
+    while (bytes > 0) {
+      int skipped = in.skipBytes(bytes);
+      if (skipped <= 0) {
+        throw new EOFException();
+      }
+      bytes -= skipped;
+    }
+  }
+
+}
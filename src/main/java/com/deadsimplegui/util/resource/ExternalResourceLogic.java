@@ -1,49 +1,256 @@
 package com.deadsimplegui.util.resource;
 
 import java.awt.Image;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.Reader;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.HttpURLConnection;
 import java.net.URI;
+import java.net.URLConnection;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Locale;
 import java.util.Map;
-import javax.imageio.ImageIO;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
 
 /**
- * The `ExternalResourceLogic` class provides extremely rudimentary logic for accessing
- * external resources. It is provided purely as a demonstration implementation, is not expected to
- * work in most cases, and leaks the computer's IP address during DNS look ups.
+ * The `ExternalResourceLogic` class provides logic for accessing external resources over HTTP. It
+ * leaks the computer's IP address during DNS look ups.
+ * <p>
+ * Responses are requested with gzip or deflate compression, read in bulk and decoded with the
+ * charset declared by the response. Connections are reused through the JVM's HTTP keep-alive
+ * cache, which requires every response body to be read to its end and closed; `ResourceContent`
+ * instances returned by this class must therefore always be closed.
+ * <p>
+ * The body of an HTML error response is returned so that the server's error page is displayed,
+ * while any other error response, including every error response to an image request, fails the
+ * request. The status of a response is available through the `execute` function.
  */
 public class ExternalResourceLogic implements ResourceLogic {
+  private static final int DEFAULT_CONNECT_TIMEOUT = 10000;
+  private static final int DEFAULT_READ_TIMEOUT = 30000;
+  private static final int BUFFER_SIZE = 8192;
+  private static final int MAX_INITIAL_CAPACITY = 1 << 20;
+  private final int connectTimeout;
+  private final int readTimeout;
+
+  public ExternalResourceLogic() {
+    this(DEFAULT_CONNECT_TIMEOUT, DEFAULT_READ_TIMEOUT);
+  }
+
+  /**
+   * The `ExternalResourceLogic` class constructor.
+   *
+   * @param connectTimeout in milliseconds to wait for a connection to be established.
+   * @param readTimeout in milliseconds to wait for data to arrive before giving up on a response.
+   */
+  public ExternalResourceLogic(int connectTimeout, int readTimeout) {
+    this.connectTimeout = connectTimeout;
+    this.readTimeout = readTimeout;
+  }
 
   @Override
   public byte[] get(URI uri) {
-    StringBuilder html = new StringBuilder();
-    try (Reader reader = new InputStreamReader(uri.toURL().openStream())) {
-      for(int data; (data = reader.read()) != -1;) {
-        html.append((char)data);
-      }
-    } catch (IOException e) {
-      throw new RuntimeException("Unable to retrieve data from " + uri, e);
-    }
-    return html.toString().getBytes();
+    return readFully(open(uri), uri);
   }
 
   @Override
   public byte[] post(URI uri, Map<String, String> params) {
-    StringBuilder html = new StringBuilder();
-    try (Reader reader = new InputStreamReader(uri.toURL().openStream())) {
-      for(int data; (data = reader.read()) != -1;) {
-        html.append((char)data);
+    return readFully(open(uri, params), uri);
+  }
+
+  @Override
+  public ResourceContent open(URI uri) {
+    return contentOf(execute(uri, null, Collections.emptyMap()), uri);
+  }
+
+  @Override
+  public ResourceContent open(URI uri, Map<String, String> params) {
+    return contentOf(execute(uri, params, Collections.emptyMap()), uri);
+  }
+
+  @Override
+  public Image readImage(URI uri) throws IOException {
+    return readImage(uri, 0, 0);
+  }
+
+  @Override
+  public Image readImage(URI uri, int width, int height) throws IOException {
+    ExternalResponse response = execute(uri, null, Collections.emptyMap());
+    try (ResourceContent content = response.getContent()) {
+      if (response.getStatusCode() >= 400) {
+        throw new IOException("Server returned HTTP response code " + response.getStatusCode()
+            + " for image " + uri);
+      }
+      return ImageDecoder.decode(content.getInputStream(), width, height);
+    }
+  }
+
+  /**
+   * The `contentOf` function returns the content of the supplied response, failing when the
+   * response is an error that cannot be displayed as a page.
+   */
+  static ResourceContent contentOf(ExternalResponse response, URI uri) {
+    ResourceContent content = response.getContent();
+    String contentType = content.getContentType();
+    if (response.getStatusCode() >= 400
+        && (contentType == null || !contentType.toLowerCase(Locale.ROOT).startsWith("text/html"))) {
+      try {
+        content.close();
+      } catch (IOException e) {
+        //swallow
+      }
+      throw new RuntimeException("Unable to retrieve data from " + uri, new IOException(
+          "Server returned HTTP response code " + response.getStatusCode()));
+    }
+    return content;
+  }
+
+  /**
+   * The `execute` function sends a request to the supplied URI and returns the response. When
+   * parameters are supplied a POST request is sent with the parameters as a URL-encoded form body,
+   * otherwise a GET request is sent. The body of an error response is returned like any other
+   * response, so the caller must check the status code.
+   *
+   * @param uri The URI to send the request to.
+   * @param params The parameters to add to the request body, or null to send a GET request.
+   * @param headers The additional request headers to send.
+   * @return The response, whose content must be closed by the caller.
+   */
+  public ExternalResponse execute(URI uri, Map<String, String> params, Map<String, String> headers) {
+    try {
+      URLConnection connection = uri.toURL().openConnection();
+      connection.setConnectTimeout(connectTimeout);
+      connection.setReadTimeout(readTimeout);
+      connection.setRequestProperty("Accept-Encoding", "gzip, deflate");
+      for (Map.Entry<String, String> header : headers.entrySet()) {
+        connection.setRequestProperty(header.getKey(), header.getValue());
+      }
+      if (params != null) {
+        writeForm(connection, params);
       }
+
+      int statusCode = 200;
+      InputStream inputStream;
+      if (connection instanceof HttpURLConnection) {
+        HttpURLConnection httpConnection = (HttpURLConnection) connection;
+        statusCode = httpConnection.getResponseCode();
+        inputStream = statusCode >= 400 ? httpConnection.getErrorStream() : httpConnection.getInputStream();
+        if (inputStream == null) {
+          if (statusCode >= 400) {
+            throw new IOException("Server returned HTTP response code " + statusCode);
+          }
+          inputStream = new ByteArrayInputStream(new byte[0]);
+        }
+      } else {
+        inputStream = connection.getInputStream();
+      }
+
+      String contentEncoding = connection.getContentEncoding();
+      long contentLength = connection.getContentLengthLong();
+      if ("gzip".equalsIgnoreCase(contentEncoding) || "x-gzip".equalsIgnoreCase(contentEncoding)) {
+        inputStream = new GZIPInputStream(inputStream, BUFFER_SIZE);
+        contentLength = -1;
+      } else if ("deflate".equalsIgnoreCase(contentEncoding)) {
+        inputStream = inflate(inputStream);
+        contentLength = -1;
+      }
+
+      String contentType = connection.getContentType();
+      return new ExternalResponse(
+          statusCode,
+          connection.getHeaderFields(),
+          new ResourceContent(
+              new BufferedInputStream(inputStream, BUFFER_SIZE),
+              contentType,
+              ResourceContent.charsetOf(contentType, StandardCharsets.UTF_8),
+              contentLength
+          )
+      );
     } catch (IOException e) {
       throw new RuntimeException("Unable to retrieve data from " + uri, e);
     }
-    return html.toString().getBytes();
   }
 
-  @Override
-  public Image readImage(URI uri) throws IOException {
-    return ImageIO.read(uri.toURL());
+  /**
+   * The `inflate` function decodes a `deflate` response body. The body should be zlib wrapped, but
+   * many servers send a raw deflate stream instead, so the zlib header is checked for first.
+   */
+  private static InputStream inflate(InputStream inputStream) throws IOException {
+    BufferedInputStream in = new BufferedInputStream(inputStream, BUFFER_SIZE);
+    in.mark(2);
+    int cmf = in.read();
+    int flg = in.read();
+    in.reset();
+    boolean zlib = cmf != -1 && flg != -1 && (cmf & 0x0f) == 8 && ((cmf << 8) | flg) % 31 == 0;
+    Inflater inflater = new Inflater(!zlib);
+    return new InflaterInputStream(in, inflater, BUFFER_SIZE) {
+      @Override
+      public void close() throws IOException {
+        try {
+          super.close();
+        } finally {
+          inflater.end();
+        }
+      }
+    };
+  }
+
+  /**
+   * The `writeForm` function writes the supplied parameters to the supplied connection as a
+   * URL-encoded POST request body.
+   */
+  private static void writeForm(URLConnection connection, Map<String, String> params)
+      throws IOException {
+    StringBuilder form = new StringBuilder();
+    for (Map.Entry<String, String> param : params.entrySet()) {
+      if (form.length() > 0) {
+        form.append('&');
+      }
+      form.append(encode(param.getKey())).append('=').append(encode(param.getValue()));
+    }
+    byte[] body = form.toString().getBytes(StandardCharsets.UTF_8);
+    if (connection instanceof HttpURLConnection) {
+      ((HttpURLConnection) connection).setRequestMethod("POST");
+      ((HttpURLConnection) connection).setFixedLengthStreamingMode(body.length);
+    }
+    connection.setDoOutput(true);
+    connection.setRequestProperty("Content-Type", "application/x-www-form-urlencoded; charset=UTF-8");
+    try (OutputStream out = connection.getOutputStream()) {
+      out.write(body);
+    }
+  }
+
+  private static String encode(String value) throws UnsupportedEncodingException {
+    return URLEncoder.encode(value != null ? value : "", StandardCharsets.UTF_8.name());
+  }
+
+  /**
+   * The `readFully` function reads the supplied content into memory in bulk and closes it. The
+   * buffer is sized from the declared content length, but never larger than 1MB up front so that
+   * a bogus `Content-Length` header cannot allocate memory before any data has arrived.
+   */
+  private static byte[] readFully(ResourceContent content, URI uri) {
+    long contentLength = content.getContentLength();
+    ByteArrayOutputStream body = new ByteArrayOutputStream(
+        contentLength > 0 ? (int) Math.min(contentLength, MAX_INITIAL_CAPACITY) : BUFFER_SIZE
+    );
+    try (InputStream in = content.getInputStream()) {
+      byte[] buffer = new byte[BUFFER_SIZE];
+      for (int read; (read = in.read(buffer)) != -1;) {
+        body.write(buffer, 0, read);
+      }
+    } catch (IOException e) {
+      throw new RuntimeException("Unable to retrieve data from " + uri, e);
+    }
+    return body.toByteArray();
   }
 
 }
@@ -0,0 +1,54 @@
+package com.deadsimplegui.util.resource;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The `ExternalResponse` class exists to expose the status and headers of a response retrieved by
+ * the `ExternalResourceLogic` alongside its content. This is needed by decorators, such as the
+ * `CachingResourceLogic`, that must understand HTTP semantics.
+ */
+public class ExternalResponse {
+  private final int statusCode;
+  private final Map<String, List<String>> headers;
+  private final ResourceContent content;
+
+  ExternalResponse(int statusCode, Map<String, List<String>> headers, ResourceContent content) {
+    this.statusCode = statusCode;
+    this.headers = headers != null ? headers : Collections.emptyMap();
+    this.content = content;
+  }
+
+  /**
+   * The HTTP status code of the response, or 200 when the resource was not retrieved over HTTP.
+   */
+  public int getStatusCode() {
+    return statusCode;
+  }
+
+  /**
+   * The `getHeader` function returns the last value of the supplied response header.
+   *
+   * @param name of the header, which is matched case-insensitively.
+   * @return the header's value, or null when the response does not include the header.
+   */
+  public String getHeader(String name) {
+    for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+      if (name.equalsIgnoreCase(header.getKey())
+          && header.getValue() != null
+          && !header.getValue().isEmpty()) {
+        return header.getValue().get(header.getValue().size() - 1);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * The decoded response body, which must be closed by the caller.
+   */
+  public ResourceContent getContent() {
+    return content;
+  }
+
+}
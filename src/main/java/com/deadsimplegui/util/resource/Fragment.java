@@ -0,0 +1,55 @@
+package com.deadsimplegui.util.resource;
+
+/**
+ * The `Fragment` class exists to describe an update to a displayed page, which replaces either the
+ * content of the element with the supplied `id` or the element itself with the supplied HTML.
+ * <p>
+ * Only elements that the GUI renders as blocks, such as DIV, P, TABLE, TR and TD elements, can be
+ * targeted. Fragments targeting an element that does not exist are ignored.
+ */
+public class Fragment {
+  private final String id;
+  private final String html;
+  private final boolean outer;
+
+  private Fragment(String id, String html, boolean outer) {
+    this.id = id;
+    this.html = html;
+    this.outer = outer;
+  }
+
+  /**
+   * The `inner` function creates a fragment that replaces the content of an element.
+   *
+   * @param id of the element to update.
+   * @param html to replace the element's content with.
+   * @return the fragment.
+   */
+  public static Fragment inner(String id, String html) {
+    return new Fragment(id, html, false);
+  }
+
+  /**
+   * The `outer` function creates a fragment that replaces an element, including its tags.
+   *
+   * @param id of the element to replace.
+   * @param html to replace the element with.
+   * @return the fragment.
+   */
+  public static Fragment outer(String id, String html) {
+    return new Fragment(id, html, true);
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public String getHtml() {
+    return html;
+  }
+
+  public boolean isOuter() {
+    return outer;
+  }
+
+}
@@ -0,0 +1,26 @@
+package com.deadsimplegui.util.resource;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The `FragmentPage` interface exists to allow a `Page` that is already displayed to be updated by
+ * replacing only the elements that changed, rather than rendering the whole page again. This keeps
+ * the page's scroll position and images intact, and is far cheaper for large pages.
+ * <p>
+ * When the GUI navigates to the page that is already displayed, the `getFragments` function is
+ * called instead of the `getHtml` function. The page is rendered in full when it is not displayed
+ * yet or when `getFragments` returns null.
+ */
+public interface FragmentPage extends Page {
+
+  /**
+   * The `getFragments` function's implementation should return the updates to apply to the
+   * displayed page, each targeting an element by its `id` attribute.
+   *
+   * @param params to render the page with.
+   * @return the updates to apply, or null to render the whole page again.
+   */
+  List<Fragment> getFragments(Map<String, String> params);
+
+}
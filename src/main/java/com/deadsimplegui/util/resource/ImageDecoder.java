@@ -0,0 +1,77 @@
+package com.deadsimplegui.util.resource;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+/**
+ * The `ImageDecoder` class exists to decode images at no more than the resolution they will be
+ * displayed at. A 4000x3000 photo displayed as a 64x64 thumbnail would otherwise hold 48MB of
+ * pixels in memory; instead the image reader is asked to skip the rows and columns that would be
+ * scaled away, so only the needed pixels are ever decoded.
+ * <p>
+ * Each axis is subsampled independently and only when its display size is known, because Swing
+ * displays an image whose width or height is not declared at the decoded image's own size along
+ * that axis. Subsampling such an axis would change the size the image is displayed at.
+ */
+public final class ImageDecoder {
+
+  private ImageDecoder() {
+  }
+
+  /**
+   * The `decode` function decodes the image in the supplied stream, subsampling it so that it is
+   * no larger than necessary to be displayed at the supplied size. The decoded image is never
+   * smaller than the supplied size, so it can still be scaled down smoothly when displayed, and is
+   * decoded at its full resolution along an axis whose display size is unknown.
+   *
+   * @param inputStream to decode the image from.
+   * @param width the image will be displayed at, or 0 when unknown.
+   * @param height the image will be displayed at, or 0 when unknown.
+   * @return the decoded image, or null when the stream is not in a supported image format.
+   * @throws IOException when unable to read the image.
+   */
+  public static BufferedImage decode(InputStream inputStream, int width, int height)
+      throws IOException {
+    if (width <= 0 && height <= 0) {
+      return ImageIO.read(inputStream);
+    }
+    try (ImageInputStream imageInputStream = ImageIO.createImageInputStream(inputStream)) {
+      if (imageInputStream == null) {
+        return null;
+      }
+      Iterator<ImageReader> readers = ImageIO.getImageReaders(imageInputStream);
+      if (!readers.hasNext()) {
+        return null;
+      }
+      ImageReader reader = readers.next();
+      try {
+        reader.setInput(imageInputStream, true, true);
+        ImageReadParam param = reader.getDefaultReadParam();
+        int xSubsampling = subsamplingOf(reader.getWidth(0), width);
+        int ySubsampling = subsamplingOf(reader.getHeight(0), height);
+        if (xSubsampling > 1 || ySubsampling > 1) {
+          param.setSourceSubsampling(xSubsampling, ySubsampling, 0, 0);
+        }
+        return reader.read(0, param);
+      } finally {
+        reader.dispose();
+      }
+    }
+  }
+
+  /**
+   * The `subsamplingOf` function returns the largest factor the supplied source size can be divided
+   * by while remaining at least as large as the supplied display size, or 1 when the display size
+   * is unknown.
+   */
+  static int subsamplingOf(int source, int display) {
+    return display > 0 ? Math.max(1, source / display) : 1;
+  }
+
+}
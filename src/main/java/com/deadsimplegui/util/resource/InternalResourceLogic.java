@@ -1,25 +1,109 @@
 package com.deadsimplegui.util.resource;
 
+import com.deadsimplegui.util.metrics.DiagnosticsPage;
+import com.deadsimplegui.util.metrics.Metrics;
+import com.deadsimplegui.util.metrics.Timer;
 import java.awt.Image;
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStreamWriter;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
 import java.io.UnsupportedEncodingException;
+import java.io.Writer;
 import java.net.URI;
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.imageio.ImageIO;
 
 /**
- * The `SimpleInternalResources` class provides logic for accessing internal resources.
+ * The `SimpleInternalResources` class provides logic for accessing internal resources. Pages in
+ * the `PageScope.WINDOW` scope are shared by every request made through the same instance.
+ * <p>
+ * Pages implementing `StreamingPage` are written on a background thread when opened, and their
+ * HTML is streamed to the reader through a bounded pipe as it is written.
  */
 public class InternalResourceLogic implements ResourceLogic {
+  private static final int PIPE_BYTES = 64 * 1024;
+  private static final long PIPE_POLL_MILLIS = 1000;
+  private static final ExecutorService WRITERS = Executors.newCachedThreadPool(runnable -> {
+    Thread thread = new Thread(runnable, "deadsimplegui-page-writer");
+    thread.setDaemon(true);
+    return thread;
+  });
+  private static final Timer RENDER = Metrics.timer("page.render");
+  private static final RouteMatch DIAGNOSTICS = new RouteMatch(
+      new PageFactory(DiagnosticsPage.PATH, DiagnosticsPage.class, PageScope.REQUEST, 1),
+      Collections.emptyMap()
+  );
+  private final Map<Class<? extends Page>, Page> windowPages = new ConcurrentHashMap<>();
+  private final ResponseCache responseCache = new ResponseCache();
 
   @Override
   public byte[] get(URI uri) {
+    return render(uri, parseQuery(uri), true);
+  }
+
+  @Override
+  public byte[] post(URI uri, Map<String, String> params) {
+    return render(uri, params, false);
+  }
+
+  @Override
+  public ResourceContent open(URI uri) {
+    return stream(uri, parseQuery(uri), true);
+  }
+
+  @Override
+  public ResourceContent open(URI uri, Map<String, String> params) {
+    return stream(uri, params, false);
+  }
+
+  /**
+   * The `getFragments` function returns the updates of the page bound to the supplied URI's path
+   * when the page is a `FragmentPage`.
+   */
+  @Override
+  public List<Fragment> getFragments(URI uri) {
+    return withPage(uri, parseQuery(uri), (page, params) -> page instanceof FragmentPage
+        ? ((FragmentPage) page).getFragments(params)
+        : null);
+  }
+
+  /**
+   * The `invalidate` function discards the renderings kept for the `Memoize` pages requested with a
+   * path that starts with the supplied prefix, so that they are rendered again when next requested.
+   *
+   * @param pathPrefix of the pages to discard, such as `/orders/`.
+   */
+  public void invalidate(String pathPrefix) {
+    responseCache.invalidate(pathPrefix);
+  }
+
+  /**
+   * The `getResponseCache` function returns the cache that the renderings of the `Memoize` pages are
+   * kept in, which reports how often a kept rendering was returned.
+   *
+   * @return the response cache.
+   */
+  public ResponseCache getResponseCache() {
+    return responseCache;
+  }
+
+  private static Map<String, String> parseQuery(URI uri) {
     Map params = new HashMap<>();
     if(uri.getQuery() != null && !uri.getQuery().isEmpty()) {
       Stream.of(uri.getQuery().split("&"))
@@ -37,37 +121,263 @@ public class InternalResourceLogic implements ResourceLogic {
             }
           });
     }
-    Optional<Page> page = PageScanner.find(uri.getPath(), UrlBinding.class);
-    if(page.isPresent()){
-      return page.get().getHtml(params).getBytes();
-    }
-    throw new RuntimeException("Could not locate any class existing in a registered package that "
-        + "implements `" + Page.class.getCanonicalName() + "` and is bound to path `"
-        + uri.getPath() + "`. Registered action packages are: "
-        + String.join(", ", AnnotationScanner.getRegisteredPackages(UrlBinding.class)
-        .stream()
-        .map(registeredPackage -> "`" + registeredPackage.getPackageName() + "`")
-        .collect(Collectors.toSet())));
+    return params;
   }
 
   @Override
-  public byte[] post(URI uri, Map<String, String> params) {
-    Optional<Page> page = PageScanner.find(uri.getPath(), UrlBinding.class);
-    if(page.isPresent()){
-      return page.get().getHtml(params).getBytes();
+  public Image readImage(URI uri) throws IOException {
+    return ImageIO.read(InternalResourceLogic.class.getResourceAsStream(uri.getPath()));
+  }
+
+  @Override
+  public Image readImage(URI uri, int width, int height) throws IOException {
+    InputStream inputStream = InternalResourceLogic.class.getResourceAsStream(uri.getPath());
+    if (inputStream == null) {
+      return readImage(uri);
+    }
+    try (InputStream resource = inputStream) {
+      return ImageDecoder.decode(resource, width, height);
     }
-    throw new RuntimeException("Could not locate any class existing in a registered package that "
-        + "implements `" + Page.class.getCanonicalName() + "` and is bound to path `"
-        + uri.getPath() + "`. Registered action packages are: "
-        + String.join(", ", AnnotationScanner.getRegisteredPackages(UrlBinding.class)
-        .stream()
-        .map(registeredPackage -> "`" + registeredPackage.getPackageName() + "`")
-        .collect(Collectors.toSet())));
   }
 
+  /**
+   * The `isPrefetchable` function only allows the pages whose `UrlBinding` permits it to be
+   * requested speculatively.
+   */
   @Override
-  public Image readImage(URI uri) throws IOException {
-    return ImageIO.read(InternalResourceLogic.class.getResourceAsStream(uri.getPath()));
+  public boolean isPrefetchable(URI uri) {
+    return PageScanner
+        .findRoute(uri.getPath(), UrlBinding.class)
+        .map(route -> route.getPageFactory().getPageClass().getAnnotation(UrlBinding.class))
+        .map(UrlBinding::prefetch)
+        .orElse(false);
+  }
+
+  /**
+   * The `isCacheable` function only allows the documents of the pages whose `UrlBinding` permits it
+   * to be reused.
+   */
+  @Override
+  public boolean isCacheable(URI uri) {
+    return PageScanner
+        .findRoute(uri.getPath(), UrlBinding.class)
+        .map(route -> route.getPageFactory().getPageClass().getAnnotation(UrlBinding.class))
+        .map(UrlBinding::cacheable)
+        .orElse(false);
+  }
+
+  /**
+   * The `render` function renders the page bound to the supplied URI's path with the supplied
+   * parameters, obtaining the page instance according to the page's scope. Any variables captured
+   * by the page's `UrlBinding` template are added to the parameters. When memoized, the rendering
+   * of a `Memoize` page is kept and returned again for the same parameters. A POST request is never
+   * memoized, as it may change what the page renders.
+   *
+   * @param uri of the page to render.
+   * @param params to render the page with.
+   * @param memoized whether the rendering may be kept and returned again.
+   * @return The rendered page.
+   */
+  private byte[] render(URI uri, Map<String, String> params, boolean memoized) {
+    RouteMatch route = findRoute(uri);
+    Map<String, String> pageParams = paramsOf(route, params);
+    Supplier<byte[]> render = () -> withPage(
+        route,
+        pageParams,
+        (page, renderParams) -> page.getHtml(renderParams).getBytes()
+    );
+    if (!memoized) {
+      return render.get();
+    }
+    return responseCache.get(route.getPageFactory(), uri.getPath(), pageParams, render);
+  }
+
+  /**
+   * The `stream` function opens the page bound to the supplied URI's path with the supplied
+   * parameters. A `StreamingPage` is written on a background thread while its HTML is read, every
+   * other page is rendered in its entirety before it is returned, see the `render` function.
+   *
+   * @param uri of the page to open.
+   * @param params to render the page with.
+   * @param memoized whether the rendering of a `Memoize` page may be kept and returned again.
+   * @return The page's HTML, which must be closed by the caller.
+   */
+  private ResourceContent stream(URI uri, Map<String, String> params, boolean memoized) {
+    RouteMatch route = findRoute(uri);
+    PageFactory pageFactory = route.getPageFactory();
+    if (!StreamingPage.class.isAssignableFrom(pageFactory.getPageClass())
+        || memoized && pageFactory.getPageClass().isAnnotationPresent(Memoize.class)) {
+      return ResourceContent.of(render(uri, params, memoized));
+    }
+    Map<String, String> pageParams = paramsOf(route, params);
+    PageInputStream inputStream = new PageInputStream(uri);
+    PipedOutputStream outputStream;
+    try {
+      outputStream = new PipedOutputStream(inputStream);
+    } catch (IOException e) {
+      throw new RuntimeException("Unable to stream page " + uri, e);
+    }
+    WRITERS.execute(() -> {
+      Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+      long start = System.nanoTime();
+      Page page = null;
+      try {
+        page = pageFactory.acquire(windowPages);
+        ((StreamingPage) page).write(pageParams, writer);
+      } catch (Throwable e) {
+        //the failure is only seen when the page is still being read
+        inputStream.failure = e;
+      } finally {
+        try {
+          writer.close();
+        } catch (IOException e) {
+          //swallow
+        }
+        inputStream.finish();
+        if (page != null) {
+          pageFactory.release(page);
+        }
+        RENDER.record(System.nanoTime() - start);
+      }
+    });
+    return new ResourceContent(inputStream, "text/html", StandardCharsets.UTF_8, -1);
+  }
+
+  /**
+   * The `withPage` function applies the supplied function to the page bound to the supplied URI's
+   * path and the supplied parameters, obtaining the page instance according to the page's scope.
+   * Any variables captured by the page's `UrlBinding` template are added to the parameters.
+   */
+  private <T> T withPage(
+      URI uri,
+      Map<String, String> params,
+      BiFunction<Page, Map<String, String>, T> function
+  ) {
+    RouteMatch route = findRoute(uri);
+    return withPage(route, paramsOf(route, params), function);
+  }
+
+  private <T> T withPage(
+      RouteMatch route,
+      Map<String, String> params,
+      BiFunction<Page, Map<String, String>, T> function
+  ) {
+    PageFactory pageFactory = route.getPageFactory();
+    long start = System.nanoTime();
+    Page page = pageFactory.acquire(windowPages);
+    try {
+      return function.apply(page, params);
+    } finally {
+      pageFactory.release(page);
+      RENDER.record(System.nanoTime() - start);
+    }
+  }
+
+  /**
+   * The `findRoute` function returns the route of the page bound to the supplied URI's path. The
+   * `DiagnosticsPage` path is reserved and always routed to the built-in diagnostics page.
+   */
+  private static RouteMatch findRoute(URI uri) {
+    if (DiagnosticsPage.PATH.equals(uri.getPath())) {
+      return DIAGNOSTICS;
+    }
+    return PageScanner
+        .findRoute(uri.getPath(), UrlBinding.class)
+        .orElseThrow(() -> new RuntimeException("Could not locate any class existing in a "
+            + "registered package that implements `" + Page.class.getCanonicalName()
+            + "` and is bound to path `" + uri.getPath() + "`. Registered action packages are: "
+            + String.join(", ", AnnotationScanner.getRegisteredPackages(UrlBinding.class)
+            .stream()
+            .map(registeredPackage -> "`" + registeredPackage.getPackageName() + "`")
+            .collect(Collectors.toSet()))));
+  }
+
+  private static Map<String, String> paramsOf(RouteMatch route, Map<String, String> params) {
+    if (route.getVariables().isEmpty()) {
+      return params;
+    }
+    Map<String, String> merged = new HashMap<>(params);
+    merged.putAll(route.getVariables());
+    return merged;
+  }
+
+  /**
+   * The `PageInputStream` class exists to read the HTML written by a `StreamingPage`, failing the
+   * read rather than ending the HTML early when the page fails to write itself. Closing the stream,
+   * such as when the GUI navigates elsewhere, fails the page's next write and wakes a read that is
+   * waiting for the page to write more, so neither side is left waiting on the other.
+   */
+  private static class PageInputStream extends PipedInputStream {
+    private final URI uri;
+    private volatile Throwable failure;
+    private volatile boolean closed;
+    private boolean finished;
+
+    private PageInputStream(URI uri) {
+      super(PIPE_BYTES);
+      this.uri = uri;
+    }
+
+    @Override
+    public synchronized int read() throws IOException {
+      awaitWritten();
+      return checked(super.read());
+    }
+
+    @Override
+    public synchronized int read(byte[] b, int off, int len) throws IOException {
+      if (len > 0) {
+        awaitWritten();
+      }
+      return checked(super.read(b, off, len));
+    }
+
+    @Override
+    public void close() throws IOException {
+      closed = true;
+      super.close();
+      synchronized (this) {
+        notifyAll();
+      }
+    }
+
+    /**
+     * The `finish` function is called once the page has stopped writing, so that a read waiting for
+     * more HTML returns straight away.
+     */
+    private synchronized void finish() {
+      finished = true;
+      notifyAll();
+    }
+
+    /**
+     * The `awaitWritten` function waits until the page has written HTML that has not been read
+     * yet, has stopped writing, or this stream has been closed. Like the wait of the
+     * `PipedInputStream` itself the wait is polled, as the pipe only notifies a waiting read when it
+     * is flushed.
+     */
+    private void awaitWritten() throws IOException {
+      try {
+        while (in < 0 && !finished && !closed) {
+          //wake a page waiting for the HTML it has already written to be read
+          notifyAll();
+          wait(PIPE_POLL_MILLIS);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while reading page " + uri);
+      }
+      if (closed) {
+        throw new IOException("Unable to read page " + uri + " once it has been closed");
+      }
+    }
+
+    private int checked(int read) throws IOException {
+      if (read == -1 && failure != null) {
+        throw new IOException("Unable to render page " + uri, failure);
+      }
+      return read;
+    }
   }
 
 }
@@ -0,0 +1,38 @@
+package com.deadsimplegui.util.resource;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The `Memoize` annotation exists to mark a `UrlBinding` page whose HTML depends on nothing but
+ * its parameters, so that the `InternalResourceLogic` can keep the page's rendered HTML and return
+ * it again for the same parameters instead of rendering the page again.
+ * <p>
+ * The kept HTML is discarded once it expires, once the least recently used HTML is evicted because
+ * the page holds more than `maxEntries` renderings, or when it is invalidated through the
+ * `InternalResourceLogic.invalidate` function. Only GET requests are memoized, the page is
+ * always rendered for a POST request.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Memoize {
+
+  /**
+   * How long a rendering is kept, in `unit`s.
+   */
+  long ttl() default 60;
+
+  TimeUnit unit() default TimeUnit.SECONDS;
+
+  /**
+   * The maximum number of renderings kept for the page.
+   */
+  int maxEntries() default 64;
+
+  /**
+   * The names of the parameters that the page's HTML depends on. Renderings are keyed by the path
+   * of the page along with these parameters only, or along with every parameter when empty.
+   */
+  String[] keys() default {};
+
+}
@@ -0,0 +1,125 @@
+package com.deadsimplegui.util.resource;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * The `PageFactory` class exists to provide the `Page` bound to a single path according to the
+ * page's `PageScope`. The no-argument constructor is resolved into a method handle once when the
+ * route table is built so that looking up a route never needs to construct, or even reflect over,
+ * any page other than the one being requested.
+ */
+public class PageFactory {
+  private static final MethodType PAGE_CONSTRUCTOR = MethodType.methodType(Page.class);
+  private final String path;
+  private final Class<? extends Page> pageClass;
+  private final PageScope scope;
+  private final MethodHandle constructor;
+  private final BlockingQueue<Page> pool;
+  private volatile Page singleton;
+
+  /**
+   * The `PageFactory` class constructor.
+   *
+   * @param path the page is bound to.
+   * @param pageClass to construct.
+   * @param scope of the constructed page instances.
+   * @param poolSize the maximum number of idle instances kept when the scope is pooled.
+   */
+  PageFactory(String path, Class<? extends Page> pageClass, PageScope scope, int poolSize) {
+    this.path = path;
+    this.pageClass = pageClass;
+    this.scope = scope;
+    this.pool = scope == PageScope.POOLED ? new ArrayBlockingQueue<>(Math.max(1, poolSize)) : null;
+    try {
+      Constructor<? extends Page> declaredConstructor = pageClass.getDeclaredConstructor();
+      declaredConstructor.setAccessible(true);
+      this.constructor = MethodHandles.lookup()
+          .unreflectConstructor(declaredConstructor)
+          .asType(PAGE_CONSTRUCTOR);
+    } catch (Exception e) {
+      throw new RuntimeException("Unable to construct url binded class "
+          + pageClass.getCanonicalName(), e);
+    }
+  }
+
+  /**
+   * The `newInstance` function constructs a new instance of the bound page regardless of its scope.
+   *
+   * @return a newly constructed page.
+   */
+  public Page newInstance() {
+    try {
+      return (Page) constructor.invokeExact();
+    } catch (Throwable e) {
+      throw new RuntimeException("Unable to construct url binded class "
+          + pageClass.getCanonicalName(), e);
+    }
+  }
+
+  /**
+   * The `acquire` function provides the page instance that should handle a request according to
+   * the page's scope. Every acquired page must be handed back through the `release` function once
+   * the request has been handled.
+   *
+   * @param windowPages the pages already constructed for the requesting GUI window by page class,
+   *                    or null when the request did not come from a GUI window. They are keyed by
+   *                    class so that a window keeps its pages when the route table is rebuilt.
+   * @return the page instance to handle the request with.
+   */
+  public Page acquire(Map<Class<? extends Page>, Page> windowPages) {
+    switch (scope) {
+      case SINGLETON:
+        Page page = singleton;
+        if (page == null) {
+          synchronized (this) {
+            page = singleton;
+            if (page == null) {
+              page = newInstance();
+              singleton = page;
+            }
+          }
+        }
+        return page;
+      case WINDOW:
+        if (windowPages == null) {
+          return newInstance();
+        }
+        return windowPages.computeIfAbsent(pageClass, aClass -> newInstance());
+      case POOLED:
+        Page pooled = pool.poll();
+        return pooled != null ? pooled : newInstance();
+      default:
+        return newInstance();
+    }
+  }
+
+  /**
+   * The `release` function hands back a page instance obtained from the `acquire` function.
+   *
+   * @param page the page instance that handled the request.
+   */
+  public void release(Page page) {
+    if (pool != null && page != null) {
+      pool.offer(page);
+    }
+  }
+
+  public String getPath() {
+    return path;
+  }
+
+  public Class<? extends Page> getPageClass() {
+    return pageClass;
+  }
+
+  public PageScope getScope() {
+    return scope;
+  }
+
+}
@@ -1,28 +1,139 @@
 package com.deadsimplegui.util.resource;
 
+import com.deadsimplegui.util.metrics.Metrics;
+import com.deadsimplegui.util.metrics.Timer;
+import java.lang.annotation.Annotation;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * The `PageScanner` class exists to route a path to the `Page` bound to it. The route table is
+ * built once from the registered packages and is rebuilt only when another package is registered.
+ */
 public class PageScanner {
+  private static final Map<Class<? extends Annotation>, RouteTrie> ROUTES = new ConcurrentHashMap<>();
+  private static final Timer FIND = Metrics.timer("routes.find");
+  private static final ThreadLocal<Boolean> BUILDING = new ThreadLocal<>();
+  private static long generation;
 
-  public static Optional<Page> find(String path, Class annotation) {
-    return AnnotationScanner
-        .getRegisteredPackages(annotation)
-        .stream()
-        .flatMap(annotationScanner -> annotationScanner.getClasses().stream())
-        .map(aClass -> {
-          Object urlBinding;
-          try {
-            urlBinding = aClass.getDeclaredConstructor().newInstance();
-          } catch(Exception e) {
-            throw new RuntimeException("Unable to construct url binded class "
-                + aClass.getCanonicalName(), e);
-          }
-          return urlBinding;
-        })
-        .filter(urlBinding -> urlBinding instanceof Page)
-        .map(urlBinding -> (Page) urlBinding)
-        .filter(page -> page.getClass().getAnnotation(UrlBinding.class).value().equals(path))
-        .findFirst();
+  public static Optional<Page> find(String path, Class<? extends Annotation> annotation) {
+    return findFactory(path, annotation).map(PageFactory::newInstance);
+  }
+
+  /**
+   * The `findFactory` function returns the factory for the page bound to the supplied path, which
+   * will provide page instances according to the page's scope.
+   *
+   * @param path the page is bound to.
+   * @param annotation the registered packages were registered with.
+   * @return the factory for the bound page, if any.
+   */
+  public static Optional<PageFactory> findFactory(String path, Class<? extends Annotation> annotation) {
+    return findRoute(path, annotation).map(RouteMatch::getPageFactory);
+  }
+
+  /**
+   * The `findRoute` function matches the supplied path against the bound paths and path templates,
+   * returning the factory for the matched page along with any variables captured from the path.
+   *
+   * @param path to match.
+   * @param annotation the registered packages were registered with.
+   * @return the matched route, if any.
+   */
+  public static Optional<RouteMatch> findRoute(String path, Class<? extends Annotation> annotation) {
+    long start = System.nanoTime();
+    try {
+      return Optional.ofNullable(getRouteTrie(annotation).find(path));
+    } finally {
+      FIND.record(System.nanoTime() - start);
+    }
+  }
+
+  /**
+   * The `getRoutes` function returns the route table for all classes in the registered packages
+   * that are annotated with the supplied annotation, building it on first use.
+   *
+   * @param annotation the registered packages were registered with.
+   * @return an immutable map of bound paths and path templates to the factory for the page bound
+   *         to them.
+   * @throws RuntimeException when more than one page is bound to the same path.
+   */
+  public static Map<String, PageFactory> getRoutes(Class<? extends Annotation> annotation) {
+    return getRouteTrie(annotation).getRoutes();
+  }
+
+  /**
+   * The `invalidate` function discards all built route tables so that they will be rebuilt to
+   * include a newly registered package.
+   */
+  static void invalidate() {
+    synchronized (ROUTES) {
+      generation++;
+      ROUTES.clear();
+    }
+  }
+
+  /**
+   * The `getRouteTrie` function returns the route table for the supplied annotation, building it
+   * on first use. The table is built outside of the map, as building it initializes the page
+   * classes, whose static initializers may themselves look up a page. Such a lookup is answered
+   * from a table that may be missing the pages still being loaded, which is never kept. Concurrent
+   * first calls keep the first table built, and a table built while `invalidate` was called is
+   * returned without being kept, so it never overwrites the table of a newly registered package.
+   *
+   * @param annotation the registered packages were registered with.
+   * @return the route table.
+   */
+  private static RouteTrie getRouteTrie(Class<? extends Annotation> annotation) {
+    RouteTrie routes = ROUTES.get(annotation);
+    if (routes != null) {
+      return routes;
+    }
+    if (BUILDING.get() != null) {
+      return build(annotation);
+    }
+    long built;
+    synchronized (ROUTES) {
+      built = generation;
+    }
+    BUILDING.set(Boolean.TRUE);
+    try {
+      routes = build(annotation);
+    } finally {
+      BUILDING.remove();
+    }
+    synchronized (ROUTES) {
+      if (built != generation) {
+        return routes;
+      }
+      RouteTrie existing = ROUTES.putIfAbsent(annotation, routes);
+      return existing != null ? existing : routes;
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static RouteTrie build(Class<? extends Annotation> annotation) {
+    RouteTrie routes = new RouteTrie();
+    for (AnnotationScanner annotationScanner : AnnotationScanner.getRegisteredPackages(annotation)) {
+      for (Class<?> aClass : annotationScanner.getClasses()) {
+        UrlBinding urlBinding = aClass.getAnnotation(UrlBinding.class);
+        if (urlBinding == null || !Page.class.isAssignableFrom(aClass)) {
+          continue;
+        }
+        PageFactory existing = routes.getRoutes().get(urlBinding.value());
+        if (existing != null && existing.getPageClass().equals(aClass)) {
+          continue;
+        }
+        routes.add(urlBinding.value(), new PageFactory(
+            urlBinding.value(),
+            (Class<? extends Page>) aClass,
+            urlBinding.scope(),
+            urlBinding.poolSize()
+        ));
+      }
+    }
+    return routes;
   }
 
 }
@@ -0,0 +1,35 @@
+package com.deadsimplegui.util.resource;
+
+/**
+ * The `PageScope` enum exists to define how long a `Page` instance lives once it has been
+ * constructed to handle a request. Pages that hold expensive state, such as a prepared query or a
+ * parsed template, can use a longer lived scope so that the state is not rebuilt on every click.
+ * <p>
+ * Note: Pages in the `SINGLETON` and `WINDOW` scopes may be called by more than one thread at a
+ * time and must be thread-safe. Pages in the `POOLED` scope are only ever used by one request at a
+ * time.
+ */
+public enum PageScope {
+
+  /**
+   * A new instance is constructed for every request.
+   */
+  REQUEST,
+
+  /**
+   * A single instance is shared by every GUI window in the application.
+   */
+  SINGLETON,
+
+  /**
+   * A single instance is shared by every request made from the same GUI window.
+   */
+  WINDOW,
+
+  /**
+   * Instances are borrowed from a pool for the duration of a request and returned afterwards. The
+   * size of the pool is defined by `UrlBinding.poolSize`.
+   */
+  POOLED
+
+}
@@ -0,0 +1,113 @@
+package com.deadsimplegui.util.resource;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.UnsupportedCharsetException;
+
+/**
+ * The `ResourceContent` class exists to stream the body of a resource along with the metadata
+ * needed to consume it, so that a large resource never needs to be held in memory in its entirety.
+ * The content must be closed once it has been consumed.
+ */
+public class ResourceContent implements Closeable {
+  private static final byte[] EMPTY = new byte[0];
+  private final InputStream inputStream;
+  private final String contentType;
+  private final Charset charset;
+  private final long contentLength;
+
+  /**
+   * The `ResourceContent` class constructor.
+   *
+   * @param inputStream to read the body from.
+   * @param contentType of the body, such as `text/html`, or null when unknown.
+   * @param charset the body is encoded with, or null to use the platform's default charset.
+   * @param contentLength of the body in bytes, or -1 when unknown.
+   */
+  public ResourceContent(
+      InputStream inputStream,
+      String contentType,
+      Charset charset,
+      long contentLength
+  ) {
+    this.inputStream = inputStream;
+    this.contentType = contentType;
+    this.charset = charset != null ? charset : Charset.defaultCharset();
+    this.contentLength = contentLength;
+  }
+
+  /**
+   * The `of` function adapts a raw response body returned by the `get` or `post` functions of a
+   * `ResourceLogic` into content. The body is assumed to be HTML encoded with the platform's default
+   * charset.
+   *
+   * @param body the raw response body, or null for an empty body.
+   * @return the adapted content.
+   */
+  public static ResourceContent of(byte[] body) {
+    byte[] bytes = body != null ? body : EMPTY;
+    return new ResourceContent(new ByteArrayInputStream(bytes), "text/html", null, bytes.length);
+  }
+
+  /**
+   * The `charsetOf` function returns the charset declared by the supplied `Content-Type` header.
+   *
+   * @param contentType header value, such as `text/html; charset=ISO-8859-1`.
+   * @param fallback to return when the header does not declare a supported charset.
+   * @return the declared charset or the supplied fallback.
+   */
+  public static Charset charsetOf(String contentType, Charset fallback) {
+    if (contentType == null) {
+      return fallback;
+    }
+    for (String parameter : contentType.split(";")) {
+      String trimmed = parameter.trim();
+      if (trimmed.regionMatches(true, 0, "charset=", 0, 8)) {
+        String name = trimmed.substring(8).trim().replace("\"", "").replace("'", "");
+        try {
+          return Charset.forName(name);
+        } catch (IllegalCharsetNameException | UnsupportedCharsetException e) {
+          return fallback;
+        }
+      }
+    }
+    return fallback;
+  }
+
+  public InputStream getInputStream() {
+    return inputStream;
+  }
+
+  /**
+   * The `getReader` function returns a reader that decodes the body with the content's charset.
+   *
+   * @return a reader over the body.
+   */
+  public Reader getReader() {
+    return new InputStreamReader(inputStream, charset);
+  }
+
+  public String getContentType() {
+    return contentType;
+  }
+
+  public Charset getCharset() {
+    return charset;
+  }
+
+  public long getContentLength() {
+    return contentLength;
+  }
+
+  @Override
+  public void close() throws IOException {
+    inputStream.close();
+  }
+
+}
@@ -3,6 +3,7 @@ package com.deadsimplegui.util.resource;
 import java.awt.Image;
 import java.io.IOException;
 import java.net.URI;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -30,6 +31,32 @@ public interface ResourceLogic {
    */
   byte[] post(URI uri, Map<String, String> params);
 
+  /**
+   * The `open` function's implementation should send a GET request to the supplied URI and return
+   * the response body as a stream along with its metadata. By default the body returned by the
+   * `get` function is adapted into a stream, implementations that are able to should override this
+   * to avoid holding the whole body in memory.
+   *
+   * @param uri The URI to send the get request to.
+   * @return The response body, which must be closed by the caller.
+   */
+  default ResourceContent open(URI uri) {
+    return ResourceContent.of(get(uri));
+  }
+
+  /**
+   * The `open` function's implementation should send a POST request to the supplied URI with the
+   * defined parameters and return the response body as a stream along with its metadata. By
+   * default the body returned by the `post` function is adapted into a stream.
+   *
+   * @param uri The URI to send the post request to.
+   * @param params The parameters to add to the post request body.
+   * @return The response body, which must be closed by the caller.
+   */
+  default ResourceContent open(URI uri, Map<String, String> params) {
+    return ResourceContent.of(post(uri, params));
+  }
+
   /**
    * The `readImage` function's implementation should define the process for obtaining the raw image
    * data from the supplied URI and then converting that raw image data into a java Image object
@@ -41,4 +68,56 @@ public interface ResourceLogic {
    */
   Image readImage(URI uri) throws IOException;
 
+  /**
+   * The `readImage` function's implementation should obtain the image at the supplied URI like the
+   * `readImage(URI)` function, but need not decode it at a higher resolution than the supplied
+   * display size. By default the image is decoded at its full resolution, implementations that are
+   * able to should override this to reduce the memory used by images displayed at a smaller size.
+   *
+   * @param uri to obtain the image data from.
+   * @param width the image will be displayed at, or 0 when unknown.
+   * @param height the image will be displayed at, or 0 when unknown.
+   * @return an image obtained from the supplied image source
+   * @throws IOException when unable to return the image.
+   */
+  default Image readImage(URI uri, int width, int height) throws IOException {
+    return readImage(uri);
+  }
+
+  /**
+   * The `isPrefetchable` function's implementation should determine whether the resource at the
+   * supplied URI may be requested speculatively, before the user has asked for it. By default every
+   * resource may be, as GET requests are expected to be free of side effects.
+   *
+   * @param uri of the resource.
+   * @return true when the resource may be requested speculatively.
+   */
+  default boolean isPrefetchable(URI uri) {
+    return true;
+  }
+
+  /**
+   * The `isCacheable` function's implementation should determine whether the document rendered
+   * from the resource at the supplied URI may be displayed again instead of requesting the resource
+   * again. By default every resource may be.
+   *
+   * @param uri of the resource.
+   * @return true when the rendered document may be reused.
+   */
+  default boolean isCacheable(URI uri) {
+    return true;
+  }
+
+  /**
+   * The `getFragments` function's implementation should return the updates to apply to the
+   * displayed page at the supplied URI instead of rendering it again, see `FragmentPage`. By
+   * default pages are always rendered again.
+   *
+   * @param uri of the displayed page.
+   * @return the updates to apply, or null to render the whole page again.
+   */
+  default List<Fragment> getFragments(URI uri) {
+    return null;
+  }
+
 }
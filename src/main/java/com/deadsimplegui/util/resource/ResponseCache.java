@@ -0,0 +1,188 @@
+package com.deadsimplegui.util.resource;
+
+import com.deadsimplegui.util.metrics.Counter;
+import com.deadsimplegui.util.metrics.Metrics;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * The `ResponseCache` class exists to keep the rendered HTML of the pages annotated with `Memoize`.
+ * Every page holds its own bounded, least recently used set of renderings, so that pages are never
+ * contended for by requests to other pages.
+ */
+public class ResponseCache {
+  private static final Counter HITS = Metrics.counter("responseCache.hit");
+  private static final Counter MISSES = Metrics.counter("responseCache.miss");
+  private final Map<PageFactory, Renderings> renderings = new ConcurrentHashMap<>();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  /**
+   * The `get` function returns the rendering of the supplied page with the supplied parameters.
+   * The supplied render function is called when the page is not memoized or the rendering is not
+   * kept. Concurrent requests for a rendering that is not kept may each render the page.
+   *
+   * @param pageFactory of the page.
+   * @param path the page was requested with.
+   * @param params to render the page with.
+   * @param render to render the page with.
+   * @return the rendering, which must not be modified.
+   */
+  byte[] get(PageFactory pageFactory, String path, Map<String, String> params, Supplier<byte[]> render) {
+    Memoize memoize = pageFactory.getPageClass().getAnnotation(Memoize.class);
+    if (memoize == null) {
+      return render.get();
+    }
+    Renderings pageRenderings = renderings.computeIfAbsent(pageFactory, factory -> new Renderings(memoize));
+    Key key = pageRenderings.keyOf(path, params);
+    byte[] bytes = pageRenderings.get(key);
+    if (bytes != null) {
+      hits.increment();
+      HITS.increment();
+      return bytes;
+    }
+    misses.increment();
+    MISSES.increment();
+    bytes = render.get();
+    pageRenderings.put(key, bytes);
+    return bytes;
+  }
+
+  /**
+   * The `invalidate` function discards the renderings of the pages requested with a path that
+   * starts with the supplied prefix.
+   *
+   * @param pathPrefix of the pages to discard, such as `/orders/`.
+   */
+  public void invalidate(String pathPrefix) {
+    for (Renderings pageRenderings : renderings.values()) {
+      pageRenderings.invalidate(pathPrefix);
+    }
+  }
+
+  /**
+   * The `invalidateAll` function discards every rendering.
+   */
+  public void invalidateAll() {
+    renderings.clear();
+  }
+
+  public long getHits() {
+    return hits.sum();
+  }
+
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  /**
+   * The `getHitRate` function returns the fraction of the requests to memoized pages that were
+   * answered with a kept rendering.
+   *
+   * @return the hit rate between 0 and 1, or 0 when no memoized page has been requested.
+   */
+  public double getHitRate() {
+    long hitCount = hits.sum();
+    long total = hitCount + misses.sum();
+    return total == 0 ? 0 : (double) hitCount / total;
+  }
+
+  /**
+   * The `Renderings` class exists to hold the renderings of a single memoized page.
+   */
+  private static class Renderings {
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final String[] keys;
+    private final LinkedHashMap<Key, Rendering> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private Renderings(Memoize memoize) {
+      this.ttlNanos = memoize.unit().toNanos(memoize.ttl());
+      this.maxEntries = Math.max(1, memoize.maxEntries());
+      this.keys = memoize.keys();
+    }
+
+    private Key keyOf(String path, Map<String, String> params) {
+      if (keys.length == 0) {
+        return new Key(path, new HashMap<>(params));
+      }
+      String[] values = new String[keys.length];
+      for (int i = 0; i < keys.length; i++) {
+        values[i] = params.get(keys[i]);
+      }
+      return new Key(path, Arrays.asList(values));
+    }
+
+    private synchronized byte[] get(Key key) {
+      Rendering rendering = entries.get(key);
+      if (rendering == null) {
+        return null;
+      }
+      if (System.nanoTime() - rendering.created > ttlNanos) {
+        entries.remove(key);
+        return null;
+      }
+      return rendering.bytes;
+    }
+
+    private synchronized void put(Key key, byte[] bytes) {
+      entries.put(key, new Rendering(bytes));
+      Iterator<Rendering> iterator = entries.values().iterator();
+      while (entries.size() > maxEntries && iterator.hasNext()) {
+        iterator.next();
+        iterator.remove();
+      }
+    }
+
+    private synchronized void invalidate(String pathPrefix) {
+      entries.keySet().removeIf(key -> key.path.startsWith(pathPrefix));
+    }
+  }
+
+  /**
+   * The `Key` class exists to identify a rendering by the path of the page along with the values
+   * of its parameters. The values are compared as they are rather than joined into a string, so
+   * that no two different sets of parameters share a rendering.
+   */
+  private static class Key {
+    private final String path;
+    private final Object params;
+    private final int hash;
+
+    private Key(String path, Object params) {
+      this.path = path;
+      this.params = params;
+      this.hash = 31 * path.hashCode() + params.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (!(other instanceof Key)) {
+        return false;
+      }
+      Key key = (Key) other;
+      return hash == key.hash && path.equals(key.path) && params.equals(key.params);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+
+  private static class Rendering {
+    private final byte[] bytes;
+    private final long created = System.nanoTime();
+
+    private Rendering(byte[] bytes) {
+      this.bytes = bytes;
+    }
+  }
+
+}
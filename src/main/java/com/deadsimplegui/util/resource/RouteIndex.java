@@ -0,0 +1,84 @@
+package com.deadsimplegui.util.resource;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The `RouteIndex` class exists to read the route index generated at compile time by the
+ * `UrlBindingProcessor`. Every JAR or class directory compiled with the processor contributes its
+ * own index file, so all of them are read from the supplied class loader.
+ */
+class RouteIndex {
+  static final String LOCATION = "META-INF/deadsimplegui/url-bindings.idx";
+
+  private RouteIndex() {
+  }
+
+  /**
+   * The `getClassNames` function returns the names of all indexed classes that exist within the
+   * supplied package or any of its sub-packages, grouped by the classpath root that indexed them.
+   * A root is only present when it contains an index, so a root that is missing from the result
+   * must be scanned instead.
+   *
+   * @param classLoader to read the index files from.
+   * @param packageName to filter the indexed classes by.
+   * @return the indexed class names by the URL of the root that contains their index.
+   * @throws IOException when unable to read an index file.
+   */
+  static Map<String, List<String>> getClassNames(ClassLoader classLoader, String packageName)
+      throws IOException {
+    Map<String, List<String>> classNames = new LinkedHashMap<>();
+    String prefix = packageName + '.';
+    Enumeration<URL> indexes = classLoader.getResources(LOCATION);
+    while (indexes.hasMoreElements()) {
+      URL index = indexes.nextElement();
+      String url = index.toString();
+      List<String> rootClassNames = classNames.computeIfAbsent(
+          url.substring(0, url.length() - LOCATION.length()),
+          root -> new ArrayList<>()
+      );
+      try (BufferedReader reader = new BufferedReader(
+          new InputStreamReader(index.openStream(), StandardCharsets.UTF_8))) {
+        for (String line; (line = reader.readLine()) != null;) {
+          int separator = line.indexOf('\t');
+          if (separator == -1) {
+            continue;
+          }
+          String className = line.substring(separator + 1).trim();
+          if (className.startsWith(prefix)) {
+            rootClassNames.add(className);
+          }
+        }
+      }
+    }
+    return classNames;
+  }
+
+  /**
+   * The `rootOf` function returns the URL of the classpath root that contains the supplied package
+   * resource, in the same form as the roots returned by the `getClassNames` function.
+   *
+   * @param packageUrl of the package resource within a JAR or class directory.
+   * @param packagePath of the package, with `/` separators.
+   * @return the URL of the root, or null when the supplied URL does not end with the package path.
+   */
+  static String rootOf(URL packageUrl, String packagePath) {
+    String url = packageUrl.toString();
+    if (url.endsWith("/")) {
+      url = url.substring(0, url.length() - 1);
+    }
+    if (!url.endsWith(packagePath)) {
+      return null;
+    }
+    return url.substring(0, url.length() - packagePath.length());
+  }
+
+}
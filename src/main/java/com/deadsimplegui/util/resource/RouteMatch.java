@@ -0,0 +1,26 @@
+package com.deadsimplegui.util.resource;
+
+import java.util.Map;
+
+/**
+ * The `RouteMatch` class exists to pair the page matched for a path with the variables captured
+ * from that path by the page's `UrlBinding` template.
+ */
+public class RouteMatch {
+  private final PageFactory pageFactory;
+  private final Map<String, String> variables;
+
+  RouteMatch(PageFactory pageFactory, Map<String, String> variables) {
+    this.pageFactory = pageFactory;
+    this.variables = variables;
+  }
+
+  public PageFactory getPageFactory() {
+    return pageFactory;
+  }
+
+  public Map<String, String> getVariables() {
+    return variables;
+  }
+
+}
@@ -0,0 +1,141 @@
+package com.deadsimplegui.util.resource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The `RouteTrie` class exists to match a path against the `UrlBinding` values of the registered
+ * pages. A binding may be an exact path, such as `/index.html`, or a template whose segments
+ * capture variables, such as `/orders/{id}/lines/{line}`.
+ * <p>
+ * The bindings are compiled into a trie keyed by path segment, so the cost of matching a path
+ * depends on the number of segments in the path rather than on the number of bindings. Exact
+ * segments take precedence over variable segments at every level of the trie.
+ */
+class RouteTrie {
+  private final Node root = new Node();
+  private final Map<String, PageFactory> routes = new LinkedHashMap<>();
+
+  /**
+   * The `add` function compiles the supplied binding into the trie.
+   *
+   * @param binding the exact path or path template to bind.
+   * @param pageFactory for the page being bound.
+   * @throws RuntimeException when another page is bound to an equivalent path or template.
+   */
+  void add(String binding, PageFactory pageFactory) {
+    Node node = root;
+    List<String> variableNames = new ArrayList<>();
+    int start = 0;
+    while (true) {
+      int end = binding.indexOf('/', start);
+      if (end == -1) {
+        end = binding.length();
+      }
+      String segment = binding.substring(start, end);
+      if (segment.startsWith("{") && segment.endsWith("}") && segment.length() > 2) {
+        variableNames.add(segment.substring(1, segment.length() - 1));
+        if (node.variable == null) {
+          node.variable = new Node();
+        }
+        node = node.variable;
+      } else {
+        if (segment.indexOf('{') != -1 || segment.indexOf('}') != -1) {
+          throw new RuntimeException("The `UrlBinding` value `" + binding + "` of `"
+              + pageFactory.getPageClass().getCanonicalName() + "` may only use a variable as a "
+              + "whole path segment.");
+        }
+        node = node.children.computeIfAbsent(segment, key -> new Node());
+      }
+      if (end == binding.length()) {
+        break;
+      }
+      start = end + 1;
+    }
+    if (node.route != null) {
+      throw new RuntimeException("Both `" + node.route.pageFactory.getPageClass().getCanonicalName()
+          + "` and `" + pageFactory.getPageClass().getCanonicalName() + "` are bound to path `"
+          + binding + "`.");
+    }
+    node.route = new Route(pageFactory, variableNames.toArray(new String[0]));
+    routes.put(binding, pageFactory);
+  }
+
+  /**
+   * The `find` function matches the supplied path against the compiled bindings.
+   *
+   * @param path to match.
+   * @return the matched route, or null when no binding matches the supplied path.
+   */
+  RouteMatch find(String path) {
+    List<String> values = new ArrayList<>(4);
+    Route route = match(root, path, 0, values);
+    if (route == null) {
+      return null;
+    }
+    if (route.variableNames.length == 0) {
+      return new RouteMatch(route.pageFactory, Collections.emptyMap());
+    }
+    Map<String, String> variables = new HashMap<>();
+    for (int i = 0; i < route.variableNames.length; i++) {
+      variables.put(route.variableNames[i], values.get(i));
+    }
+    return new RouteMatch(route.pageFactory, Collections.unmodifiableMap(variables));
+  }
+
+  /**
+   * The `getRoutes` function returns every compiled binding.
+   *
+   * @return an immutable map of bindings to the factory for the page bound to them.
+   */
+  Map<String, PageFactory> getRoutes() {
+    return Collections.unmodifiableMap(routes);
+  }
+
+  private static Route match(Node node, String path, int start, List<String> values) {
+    int end = path.indexOf('/', start);
+    if (end == -1) {
+      end = path.length();
+    }
+    boolean last = end == path.length();
+    String segment = path.substring(start, end);
+
+    Node child = node.children.get(segment);
+    if (child != null) {
+      Route route = last ? child.route : match(child, path, end + 1, values);
+      if (route != null) {
+        return route;
+      }
+    }
+    if (node.variable != null && !segment.isEmpty()) {
+      values.add(segment);
+      Route route = last ? node.variable.route : match(node.variable, path, end + 1, values);
+      if (route != null) {
+        return route;
+      }
+      values.remove(values.size() - 1);
+    }
+    return null;
+  }
+
+  private static class Node {
+    private final Map<String, Node> children = new HashMap<>();
+    private Node variable;
+    private Route route;
+  }
+
+  private static class Route {
+    private final PageFactory pageFactory;
+    private final String[] variableNames;
+
+    private Route(PageFactory pageFactory, String[] variableNames) {
+      this.pageFactory = pageFactory;
+      this.variableNames = variableNames;
+    }
+  }
+
+}
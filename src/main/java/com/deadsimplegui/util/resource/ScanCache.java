@@ -0,0 +1,188 @@
+package com.deadsimplegui.util.resource;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * The `ScanCache` class exists to remember the results of scanning a package across launches of
+ * the application. Each scanned classpath entry is cached separately along with a fingerprint of
+ * its size and modification time, so a changed JAR or class directory only invalidates its own
+ * results. The fingerprint of a JAR is taken from the file system without opening the JAR.
+ * <p>
+ * The cache is stored in `deadsimplegui/scan-cache.properties` within the user's cache directory,
+ * which is `$XDG_CACHE_HOME` when defined and `~/.cache` otherwise.
+ */
+class ScanCache {
+  private static final String FILE_NAME = "scan-cache.properties";
+  private static File directory = defaultDirectory();
+  private static Properties entries;
+  private static boolean modified;
+
+  private ScanCache() {
+  }
+
+  /**
+   * The `setDirectory` function changes the directory that the cache is stored in.
+   *
+   * @param cacheDirectory to store the cache in, or null to disable the cache.
+   */
+  static synchronized void setDirectory(File cacheDirectory) {
+    directory = cacheDirectory;
+    entries = null;
+    modified = false;
+  }
+
+  /**
+   * The `get` function returns the cached class names for the supplied classpath entry.
+   *
+   * @param key that identifies the annotation and classpath entry that was scanned.
+   * @param fingerprint of the classpath entry as it currently exists.
+   * @return the cached class names, or null when they are missing or were cached for a different
+   *         fingerprint.
+   */
+  static synchronized List<String> get(String key, String fingerprint) {
+    if (directory == null || fingerprint == null) {
+      return null;
+    }
+    String value = load().getProperty(key);
+    if (value == null || !value.startsWith(fingerprint + '|')) {
+      return null;
+    }
+    String classNames = value.substring(fingerprint.length() + 1);
+    if (classNames.isEmpty()) {
+      return Collections.emptyList();
+    }
+    return Arrays.asList(classNames.split(","));
+  }
+
+  /**
+   * The `put` function caches the class names found while scanning the supplied classpath entry.
+   *
+   * @param key that identifies the annotation and classpath entry that was scanned.
+   * @param fingerprint of the classpath entry that was scanned.
+   * @param classNames found while scanning.
+   */
+  static synchronized void put(String key, String fingerprint, List<String> classNames) {
+    if (directory == null || fingerprint == null) {
+      return;
+    }
+    load().setProperty(key, fingerprint + '|' + String.join(",", classNames));
+    modified = true;
+  }
+
+  /**
+   * The `save` function writes any changes made to the cache to disk. The cache is written to a
+   * temporary file first and then moved into place so that a concurrently launched application
+   * never reads a partially written cache.
+   */
+  static synchronized void save() {
+    if (directory == null || !modified) {
+      return;
+    }
+    try {
+      if (!directory.isDirectory() && !directory.mkdirs()) {
+        return;
+      }
+      File temporary = File.createTempFile(FILE_NAME, ".tmp", directory);
+      try (OutputStream out = new FileOutputStream(temporary)) {
+        entries.store(out, null);
+      }
+      Files.move(
+          temporary.toPath(),
+          new File(directory, FILE_NAME).toPath(),
+          StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE
+      );
+      modified = false;
+    } catch (IOException e) {
+      //swallow, the cache is only an optimization.
+    }
+  }
+
+  /**
+   * The `fingerprint` function returns a fingerprint of the classpath entry that the supplied
+   * package URL resides in. The fingerprint of a JAR is its size and modification time, and the
+   * fingerprint of a class directory is derived from the names, sizes and modification times of
+   * the files within it.
+   *
+   * @param url of the package within the classpath entry.
+   * @return the fingerprint, or null if the classpath entry does not reside on the file system.
+   */
+  static String fingerprint(URL url) {
+    try {
+      if ("jar".equals(url.getProtocol())) {
+        String path = url.getPath();
+        int separator = path.indexOf("!/");
+        URL jarUrl = new URL(separator == -1 ? path : path.substring(0, separator));
+        if (!"file".equals(jarUrl.getProtocol())) {
+          return null;
+        }
+        File jar = new File(jarUrl.toURI());
+        return "jar:" + jar.length() + ':' + jar.lastModified();
+      }
+      if ("file".equals(url.getProtocol())) {
+        File packageDirectory = new File(url.toURI());
+        long[] fingerprint = new long[] {0, 0};
+        fingerprint(packageDirectory, fingerprint);
+        return "dir:" + fingerprint[0] + ':' + Long.toHexString(fingerprint[1]);
+      }
+    } catch (IOException | URISyntaxException | IllegalArgumentException e) {
+      //fall through, the entry can not be fingerprinted.
+    }
+    return null;
+  }
+
+  private static void fingerprint(File directory, long[] fingerprint) {
+    File[] files = directory.listFiles();
+    if (files == null) {
+      return;
+    }
+    Arrays.sort(files);
+    for (File file : files) {
+      if (file.isDirectory()) {
+        fingerprint(file, fingerprint);
+      } else {
+        fingerprint[0]++;
+        fingerprint[1] = 31 * fingerprint[1] + file.getName().hashCode();
+        fingerprint[1] = 31 * fingerprint[1] + file.length();
+        fingerprint[1] = 31 * fingerprint[1] + file.lastModified();
+      }
+    }
+  }
+
+  private static Properties load() {
+    if (entries == null) {
+      entries = new Properties();
+      File file = new File(directory, FILE_NAME);
+      if (file.isFile()) {
+        try (InputStream in = new FileInputStream(file)) {
+          entries.load(in);
+        } catch (IOException | IllegalArgumentException e) {
+          entries = new Properties();
+        }
+      }
+    }
+    return entries;
+  }
+
+  private static File defaultDirectory() {
+    String cacheHome = System.getenv("XDG_CACHE_HOME");
+    File base = cacheHome != null && !cacheHome.isEmpty()
+        ? new File(cacheHome)
+        : new File(System.getProperty("user.home"), ".cache");
+    return new File(base, "deadsimplegui");
+  }
+
+}
@@ -0,0 +1,39 @@
+package com.deadsimplegui.util.resource;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * The `StreamingPage` interface exists to allow a `Page` to write its HTML as it is generated,
+ * rather than building the entire page as one `String`. The HTML is consumed while it is being
+ * written, so a large page never needs to be held in memory in its entirety and the GUI is able to
+ * display the beginning of the page before the rest of it has been generated.
+ * <p>
+ * The `getHtml` function is still supported by collecting the written HTML into a `String`.
+ */
+public interface StreamingPage extends Page {
+
+  /**
+   * The `write` function's implementation should write the page's HTML into the supplied output.
+   * Writing fails with an `IOException` once the HTML is no longer wanted, as the GUI closes the
+   * HTML it is reading when it navigates elsewhere, which implementations should let propagate to
+   * stop generating the page.
+   *
+   * @param params to render the page with.
+   * @param out to write the HTML into.
+   * @throws IOException when unable to write to the output.
+   */
+  void write(Map<String, String> params, Appendable out) throws IOException;
+
+  @Override
+  default String getHtml(Map<String, String> params) {
+    StringBuilder html = new StringBuilder();
+    try {
+      write(params, html);
+    } catch (IOException e) {
+      throw new RuntimeException("Unable to render page " + getClass().getCanonicalName(), e);
+    }
+    return html.toString();
+  }
+
+}
@@ -6,11 +6,37 @@ import java.lang.annotation.RetentionPolicy;
 /**
  * The `UrlBinding` annotation exists to bind a `Page` to a specific path within the application.
  * The Gui will then examine the submitted URL and if its host is `localhost` will direct it to the
- * first found `Page` that is annotated with a `UrlBinding` value matching the submitted URL's path.
+ * `Page` that is annotated with a `UrlBinding` value matching the submitted URL's path.
+ * <p>
+ * A value may also be a template whose whole path segments capture variables, such as
+ * `/orders/{id}/lines/{line}`. The captured variables are added to the parameters supplied to the
+ * page's `getHtml` function. Exact segments take precedence over variable segments.
  */
 @Retention(RetentionPolicy.RUNTIME)
 public @interface UrlBinding {
 
   String value() default "default";
 
+  /**
+   * The lifetime of the page instances constructed to handle requests to this binding.
+   */
+  PageScope scope() default PageScope.REQUEST;
+
+  /**
+   * The maximum number of idle instances kept when the scope is `PageScope.POOLED`.
+   */
+  int poolSize() default 8;
+
+  /**
+   * Whether the page may be requested speculatively, before the user has clicked a link to it.
+   * Only pages whose `getHtml` function is free of side effects should enable this.
+   */
+  boolean prefetch() default false;
+
+  /**
+   * Whether the GUI may display the page's previously rendered document again instead of rendering
+   * the page again. Pages whose HTML changes between requests should disable this.
+   */
+  boolean cacheable() default true;
+
 }
@@ -0,0 +1,104 @@
+package com.deadsimplegui.util.resource;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * The `UrlBindingProcessor` class exists to record every `Page` annotated with `UrlBinding` into a
+ * route index at compile time. The `AnnotationScanner` will read the generated index at runtime
+ * instead of walking the registered packages and loading every class found within them.
+ * <p>
+ * The processor is registered through `META-INF/services` so it will run automatically for any
+ * project that compiles against this library.
+ */
+@SupportedAnnotationTypes("com.deadsimplegui.util.resource.UrlBinding")
+public class UrlBindingProcessor extends AbstractProcessor {
+  private final Map<String, String> bindings = new TreeMap<>();
+  private final List<Element> originatingElements = new ArrayList<>();
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    TypeElement page = processingEnv.getElementUtils().getTypeElement(Page.class.getCanonicalName());
+    for (Element element : roundEnv.getElementsAnnotatedWith(UrlBinding.class)) {
+      if (element.getKind() != ElementKind.CLASS || element.getModifiers().contains(Modifier.ABSTRACT)) {
+        warn(element, "is annotated with `UrlBinding` but is not a concrete class.");
+        continue;
+      }
+      TypeElement type = (TypeElement) element;
+      TypeMirror pageType = page == null ? null : page.asType();
+      if (pageType != null && !processingEnv.getTypeUtils().isAssignable(type.asType(), pageType)) {
+        warn(element, "is annotated with `UrlBinding` but does not implement `"
+            + Page.class.getCanonicalName() + "`.");
+        continue;
+      }
+      String path = type.getAnnotation(UrlBinding.class).value();
+      if (path.indexOf('\t') != -1 || path.indexOf('\n') != -1 || path.indexOf('\r') != -1) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+            "`UrlBinding` values may not contain tabs or line breaks.", element);
+        continue;
+      }
+      bindings.put(processingEnv.getElementUtils().getBinaryName(type).toString(), path);
+      originatingElements.add(element);
+    }
+    if (roundEnv.processingOver() && !bindings.isEmpty()) {
+      writeIndex();
+    }
+    return false;
+  }
+
+  /**
+   * The `writeIndex` function writes one `path<TAB>class name` line for every binding found during
+   * this compilation to the `RouteIndex.LOCATION` resource.
+   */
+  private void writeIndex() {
+    try {
+      FileObject index = processingEnv.getFiler().createResource(
+          StandardLocation.CLASS_OUTPUT,
+          "",
+          RouteIndex.LOCATION,
+          originatingElements.toArray(new Element[0])
+      );
+      try (Writer writer = new OutputStreamWriter(index.openOutputStream(), StandardCharsets.UTF_8)) {
+        for (Map.Entry<String, String> binding : bindings.entrySet()) {
+          writer.write(binding.getValue());
+          writer.write('\t');
+          writer.write(binding.getKey());
+          writer.write('\n');
+        }
+      }
+    } catch (IOException e) {
+      processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+          "Unable to write the url binding index: " + e.getLocalizedMessage());
+    }
+  }
+
+  private void warn(Element element, String message) {
+    processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+        element.getSimpleName() + " " + message, element);
+  }
+
+}
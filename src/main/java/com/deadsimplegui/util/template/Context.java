@@ -0,0 +1,79 @@
+package com.deadsimplegui.util.template;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The `Context` class exists to hold the stack of values a template is rendered with. A name is
+ * looked up in the innermost value first and then in each enclosing value in turn, and a dotted
+ * name such as `user.name` is looked up part by part. Values are looked up in `Map` instances, and
+ * the name `.` refers to the innermost value itself.
+ */
+class Context {
+  private Object[] stack = new Object[8];
+  private int size;
+  private Map<Iterable<?>, List<Object>> items;
+
+  Context(Object root) {
+    push(root);
+  }
+
+  void push(Object value) {
+    if (size == stack.length) {
+      stack = Arrays.copyOf(stack, size * 2);
+    }
+    stack[size++] = value;
+  }
+
+  void pop() {
+    stack[--size] = null;
+  }
+
+  /**
+   * The `lookup` function returns the value of the supplied name, split into its dotted parts.
+   *
+   * @param path the parts of the name, or an empty array for `.`.
+   * @return the value, or null when the name is not defined.
+   */
+  Object lookup(String[] path) {
+    if (path.length == 0) {
+      return stack[size - 1];
+    }
+    for (int i = size - 1; i >= 0; i--) {
+      if (stack[i] instanceof Map && ((Map<?, ?>) stack[i]).containsKey(path[0])) {
+        Object value = ((Map<?, ?>) stack[i]).get(path[0]);
+        for (int part = 1; part < path.length && value != null; part++) {
+          value = value instanceof Map ? ((Map<?, ?>) value).get(path[part]) : null;
+        }
+        return value;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * The `itemsOf` function returns the items of the supplied iterable, iterating it only the first
+   * time it is supplied while rendering. An iterable that is not a collection, such as one backed
+   * by a stream, may only be iterated once, so this is used when more than one section of the
+   * template refers to it.
+   *
+   * @param iterable to return the items of.
+   * @return the items of the iterable.
+   */
+  List<Object> itemsOf(Iterable<?> iterable) {
+    if (items == null) {
+      items = new IdentityHashMap<>();
+    }
+    return items.computeIfAbsent(iterable, key -> {
+      List<Object> list = new ArrayList<>();
+      for (Object item : key) {
+        list.add(item);
+      }
+      return list;
+    });
+  }
+
+}
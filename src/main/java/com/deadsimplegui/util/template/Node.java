@@ -0,0 +1,21 @@
+package com.deadsimplegui.util.template;
+
+import java.io.IOException;
+
+/**
+ * The `Node` interface exists to provide the structure of a compiled template instruction, such as
+ * literal text, a variable or a section.
+ */
+interface Node {
+
+  /**
+   * The `render` function's implementation should write the node's output for the supplied context
+   * into the supplied output.
+   *
+   * @param context the values are looked up in.
+   * @param out to write the output into.
+   * @throws IOException when unable to write to the output.
+   */
+  void render(Context context, Appendable out) throws IOException;
+
+}
@@ -0,0 +1,106 @@
+package com.deadsimplegui.util.template;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * The `SectionNode` class exists to render the part of a template between `{{#name}}` and
+ * `{{/name}}` according to the value of the variable:
+ * <ul>
+ *   <li>null, false, an empty collection, an empty map or an empty array renders nothing.</li>
+ *   <li>true renders the section once in the current context.</li>
+ *   <li>an `Iterable` or an array renders the section once for each item, with the item as the
+ *   innermost context.</li>
+ *   <li>any other value renders the section once with the value as the innermost context.</li>
+ * </ul>
+ * An inverted section, written between `{{^name}}` and `{{/name}}`, renders once only when a
+ * section with the same value would render nothing. An `Iterable` that is not a collection is
+ * iterated once, as it may only be iterable once. When the template has more than one section with
+ * the same name, such as a section and its inverted section, its items are kept for the other
+ * sections, see `Context.itemsOf`.
+ */
+class SectionNode implements Node {
+  private final String[] path;
+  private final boolean inverted;
+  private final Node[] children;
+  private boolean shared;
+
+  SectionNode(String[] path, boolean inverted, Node[] children) {
+    this.path = path;
+    this.inverted = inverted;
+    this.children = children;
+  }
+
+  @Override
+  public void render(Context context, Appendable out) throws IOException {
+    Object value = context.lookup(path);
+    if (value instanceof Iterable && !(value instanceof Collection)) {
+      if (shared) {
+        value = context.itemsOf((Iterable<?>) value);
+      } else if (inverted) {
+        if (!((Iterable<?>) value).iterator().hasNext()) {
+          renderChildren(context, out);
+        }
+        return;
+      }
+    }
+    if (inverted) {
+      if (isEmpty(value)) {
+        renderChildren(context, out);
+      }
+    } else if (isEmpty(value)) {
+      return;
+    } else if (value instanceof Boolean) {
+      renderChildren(context, out);
+    } else if (value instanceof Iterable) {
+      for (Object item : (Iterable<?>) value) {
+        renderWith(item, context, out);
+      }
+    } else if (value.getClass().isArray()) {
+      for (int i = 0, length = Array.getLength(value); i < length; i++) {
+        renderWith(Array.get(value, i), context, out);
+      }
+    } else {
+      renderWith(value, context, out);
+    }
+  }
+
+  /**
+   * The `share` function is called by the `TemplateCompiler` when another section of the template
+   * has the same name, so that an iterable the sections share is only iterated once.
+   */
+  void share() {
+    shared = true;
+  }
+
+  private void renderWith(Object item, Context context, Appendable out) throws IOException {
+    context.push(item);
+    try {
+      renderChildren(context, out);
+    } finally {
+      context.pop();
+    }
+  }
+
+  private void renderChildren(Context context, Appendable out) throws IOException {
+    for (Node child : children) {
+      child.render(context, out);
+    }
+  }
+
+  private static boolean isEmpty(Object value) {
+    if (value == null || Boolean.FALSE.equals(value)) {
+      return true;
+    }
+    if (value instanceof Collection) {
+      return ((Collection<?>) value).isEmpty();
+    }
+    if (value instanceof Map) {
+      return ((Map<?, ?>) value).isEmpty();
+    }
+    return value.getClass().isArray() && Array.getLength(value) == 0;
+  }
+
+}
@@ -0,0 +1,112 @@
+package com.deadsimplegui.util.template;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The `Template` class exists to render HTML from a template rather than by concatenating strings
+ * by hand, escaping every value written into the HTML unless told otherwise. Templates are compiled
+ * into a tree of instructions once, see `TemplateCompiler` for the supported tags, and a template
+ * loaded from the classpath is compiled the first time it is loaded only.
+ * <p>
+ * A template is rendered with a context, which is typically a `Map` of the values the template
+ * refers to. Rendering writes straight into the supplied output, such as the output of a
+ * `StreamingPage`, so that large pages are never held in memory as a whole. Templates are
+ * immutable and may be rendered by several threads at the same time.
+ */
+public class Template {
+  private static final Map<String, Template> TEMPLATES = new ConcurrentHashMap<>();
+  private static final int MAX_REUSED_BUFFER = 1024 * 1024;
+  private static final ThreadLocal<StringBuilder> BUFFERS = ThreadLocal.withInitial(StringBuilder::new);
+  private final String name;
+  private final Node[] nodes;
+
+  private Template(String name, Node[] nodes) {
+    this.name = name;
+    this.nodes = nodes;
+  }
+
+  /**
+   * The `load` function returns the template at the supplied classpath resource path, compiling it
+   * the first time it is loaded. The resource must be encoded as UTF-8.
+   *
+   * @param path of the template resource, such as `/templates/table.html`.
+   * @return the compiled template.
+   */
+  public static Template load(String path) {
+    return TEMPLATES.computeIfAbsent(path, Template::read);
+  }
+
+  /**
+   * The `compile` function compiles the supplied template source. The template is not cached, so
+   * the returned template should be kept and reused.
+   *
+   * @param source of the template.
+   * @return the compiled template.
+   */
+  public static Template compile(String source) {
+    return new Template("<inline>", TemplateCompiler.compile("<inline>", source));
+  }
+
+  private static Template read(String path) {
+    try (InputStream inputStream = Template.class.getResourceAsStream(path)) {
+      if (inputStream == null) {
+        throw new RuntimeException("Could not locate template " + path + " on the classpath");
+      }
+      ByteArrayOutputStream source = new ByteArrayOutputStream();
+      byte[] buffer = new byte[8192];
+      for (int read = inputStream.read(buffer); read != -1; read = inputStream.read(buffer)) {
+        source.write(buffer, 0, read);
+      }
+      return new Template(path, TemplateCompiler.compile(path, new String(source.toByteArray(), StandardCharsets.UTF_8)));
+    } catch (IOException e) {
+      throw new RuntimeException("Unable to read template " + path, e);
+    }
+  }
+
+  /**
+   * The `render` function writes the template rendered with the supplied context into the supplied
+   * output.
+   *
+   * @param context the template's values are looked up in.
+   * @param out to write the HTML into.
+   * @throws IOException when unable to write to the output.
+   */
+  public void render(Object context, Appendable out) throws IOException {
+    Context values = new Context(context);
+    for (Node node : nodes) {
+      node.render(values, out);
+    }
+  }
+
+  /**
+   * The `render` function returns the template rendered with the supplied context. The HTML is
+   * rendered into a buffer that is reused by the calling thread.
+   *
+   * @param context the template's values are looked up in.
+   * @return the rendered HTML.
+   */
+  public String render(Object context) {
+    StringBuilder buffer = BUFFERS.get();
+    buffer.setLength(0);
+    try {
+      render(context, buffer);
+      return buffer.toString();
+    } catch (IOException e) {
+      throw new RuntimeException("Unable to render template " + name, e);
+    } finally {
+      if (buffer.capacity() > MAX_REUSED_BUFFER) {
+        BUFFERS.remove();
+      }
+    }
+  }
+
+  public String getName() {
+    return name;
+  }
+
+}
@@ -0,0 +1,120 @@
+package com.deadsimplegui.util.template;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The `TemplateCompiler` class exists to compile the source of a template into a tree of nodes
+ * once, so that rendering the template never needs to parse it again. The following tags are
+ * supported:
+ * <ul>
+ *   <li>`{{name}}` writes the HTML escaped value of a variable.</li>
+ *   <li>`{{{name}}}` writes the value of a variable as is.</li>
+ *   <li>`{{#name}}` and `{{/name}}` enclose a section, see `SectionNode`.</li>
+ *   <li>`{{^name}}` and `{{/name}}` enclose an inverted section.</li>
+ *   <li>`{{! comment}}` is removed.</li>
+ * </ul>
+ */
+class TemplateCompiler {
+  private static final String OPEN = "{{";
+  private static final String CLOSE = "}}";
+  private static final String[] CURRENT = new String[0];
+
+  private TemplateCompiler() {
+  }
+
+  /**
+   * The `compile` function compiles the supplied template source.
+   *
+   * @param name of the template, used to describe errors.
+   * @param source of the template.
+   * @return the root nodes of the template.
+   */
+  static Node[] compile(String name, String source) {
+    Deque<Frame> frames = new ArrayDeque<>();
+    Map<String, List<SectionNode>> sections = new HashMap<>();
+    frames.push(new Frame(null, false));
+    int pos = 0;
+    while (pos < source.length()) {
+      int open = source.indexOf(OPEN, pos);
+      if (open == -1) {
+        frames.peek().addText(source.substring(pos));
+        break;
+      }
+      frames.peek().addText(source.substring(pos, open));
+      boolean raw = source.startsWith("{", open + OPEN.length());
+      String close = raw ? "}" + CLOSE : CLOSE;
+      int tagStart = open + OPEN.length() + (raw ? 1 : 0);
+      int tagEnd = source.indexOf(close, tagStart);
+      if (tagEnd == -1) {
+        throw new RuntimeException("Unclosed tag at offset " + open + " of template " + name);
+      }
+      String tag = source.substring(tagStart, tagEnd).trim();
+      pos = tagEnd + close.length();
+      char type = raw || tag.isEmpty() ? ' ' : tag.charAt(0);
+      switch (type) {
+        case '!':
+          break;
+        case '#':
+        case '^':
+          frames.push(new Frame(tag.substring(1).trim(), type == '^'));
+          break;
+        case '/':
+          Frame frame = frames.pop();
+          String sectionName = tag.substring(1).trim();
+          if (frame.name == null || !frame.name.equals(sectionName)) {
+            throw new RuntimeException("Unexpected closing tag `" + sectionName + "` at offset "
+                + open + " of template " + name);
+          }
+          SectionNode section = new SectionNode(pathOf(frame.name), frame.inverted, frame.toArray());
+          sections.computeIfAbsent(frame.name, key -> new ArrayList<>()).add(section);
+          frames.peek().nodes.add(section);
+          break;
+        default:
+          frames.peek().nodes.add(new VariableNode(pathOf(tag), !raw));
+      }
+    }
+    if (frames.size() > 1) {
+      throw new RuntimeException("Unclosed section `" + frames.peek().name + "` in template " + name);
+    }
+    for (List<SectionNode> named : sections.values()) {
+      if (named.size() > 1) {
+        named.forEach(SectionNode::share);
+      }
+    }
+    return frames.pop().toArray();
+  }
+
+  private static String[] pathOf(String name) {
+    return ".".equals(name) ? CURRENT : name.split("\\.");
+  }
+
+  /**
+   * The `Frame` class exists to collect the nodes of a section while it is being compiled.
+   */
+  private static class Frame {
+    private final String name;
+    private final boolean inverted;
+    private final List<Node> nodes = new ArrayList<>();
+
+    private Frame(String name, boolean inverted) {
+      this.name = name;
+      this.inverted = inverted;
+    }
+
+    private void addText(String text) {
+      if (!text.isEmpty()) {
+        nodes.add(new TextNode(text));
+      }
+    }
+
+    private Node[] toArray() {
+      return nodes.toArray(new Node[0]);
+    }
+  }
+
+}
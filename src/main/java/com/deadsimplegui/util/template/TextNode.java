@@ -0,0 +1,20 @@
+package com.deadsimplegui.util.template;
+
+import java.io.IOException;
+
+/**
+ * The `TextNode` class exists to write a literal part of a template as is.
+ */
+class TextNode implements Node {
+  private final String text;
+
+  TextNode(String text) {
+    this.text = text;
+  }
+
+  @Override
+  public void render(Context context, Appendable out) throws IOException {
+    out.append(text);
+  }
+
+}
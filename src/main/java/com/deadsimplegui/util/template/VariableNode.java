@@ -0,0 +1,65 @@
+package com.deadsimplegui.util.template;
+
+import java.io.IOException;
+
+/**
+ * The `VariableNode` class exists to write the value of a variable, HTML escaped unless the
+ * variable was written as `{{{name}}}`. Missing values are written as nothing.
+ */
+class VariableNode implements Node {
+  private final String[] path;
+  private final boolean escaped;
+
+  VariableNode(String[] path, boolean escaped) {
+    this.path = path;
+    this.escaped = escaped;
+  }
+
+  @Override
+  public void render(Context context, Appendable out) throws IOException {
+    Object value = context.lookup(path);
+    if (value == null) {
+      return;
+    }
+    CharSequence text = value instanceof CharSequence ? (CharSequence) value : value.toString();
+    if (escaped) {
+      escape(text, out);
+    } else {
+      out.append(text);
+    }
+  }
+
+  /**
+   * The `escape` function writes the supplied text with the characters that are significant in HTML
+   * replaced by their entities. Runs of insignificant characters are written without copying them.
+   */
+  static void escape(CharSequence text, Appendable out) throws IOException {
+    int start = 0;
+    for (int i = 0; i < text.length(); i++) {
+      String entity;
+      switch (text.charAt(i)) {
+        case '&':
+          entity = "&amp;";
+          break;
+        case '<':
+          entity = "&lt;";
+          break;
+        case '>':
+          entity = "&gt;";
+          break;
+        case '"':
+          entity = "&quot;";
+          break;
+        case '\'':
+          entity = "&#39;";
+          break;
+        default:
+          continue;
+      }
+      out.append(text, start, i).append(entity);
+      start = i + 1;
+    }
+    out.append(text, start, text.length());
+  }
+
+}
@@ -0,0 +1,223 @@
+package com.deadsimplegui.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.deadsimplegui.util.resource.ResourceContent;
+import com.deadsimplegui.util.resource.ResourceLogic;
+import java.awt.Image;
+import java.awt.Point;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * The `HistoryTest` class tests navigating the recorded pages and keeping their HTML within the
+ * history's memory bound.
+ */
+public class HistoryTest {
+  private static final int PAGE_BYTES = 16 * 1024;
+  private final List<String> requests = new ArrayList<>();
+  private ResourceLogic resourceLogic;
+
+  @Before
+  public void setUp() {
+    resourceLogic = new ResourceLogic() {
+      @Override
+      public byte[] get(URI uri) {
+        requests.add(uri.getPath());
+        return ("requested " + uri.getPath()).getBytes(StandardCharsets.UTF_8);
+      }
+
+      @Override
+      public byte[] post(URI uri, Map<String, String> params) {
+        return get(uri);
+      }
+
+      @Override
+      public Image readImage(URI uri) {
+        return null;
+      }
+    };
+  }
+
+  @Test
+  public void backAndForwardMoveBetweenRecordedPages() {
+    History history = new History();
+    HtmlPage first = visit(history, "/1", "<p>1</p>");
+    HtmlPage second = visit(history, "/2", "<p>2</p>");
+    assertSame(second, history.current());
+    assertNull(history.go(null, 1));
+    History.Entry back = history.go(null, -1);
+    assertEquals("<p>1</p>", read(back.toPage()));
+    assertSame(second, history.current());
+    history.moveTo(back, new Point(0, 40));
+    assertSame(first, history.current());
+    assertNull(history.go(null, -1));
+    History.Entry forward = history.go(null, 1);
+    assertEquals(new Point(0, 40), forward.getScroll());
+    assertEquals("<p>2</p>", read(forward.toPage()));
+    history.moveTo(forward, new Point(0, 10));
+    assertSame(second, history.current());
+    assertEquals(new Point(0, 10), history.go(null, -1).getScroll());
+    assertTrue(requests.isEmpty());
+  }
+
+  @Test
+  public void goMovesFromAPendingEntry() {
+    History history = new History();
+    visit(history, "/1", "<p>1</p>");
+    visit(history, "/2", "<p>2</p>");
+    visit(history, "/3", "<p>3</p>");
+    History.Entry pending = history.go(null, -1);
+    assertEquals("<p>1</p>", read(history.go(pending, -1).toPage()));
+    assertNull(history.go(pending, -2));
+  }
+
+  @Test
+  public void pushDiscardsTheForwardPages() {
+    History history = new History();
+    visit(history, "/1", "<p>1</p>");
+    visit(history, "/2", "<p>2</p>");
+    history.moveTo(history.go(null, -1), null);
+    visit(history, "/3", "<p>3</p>");
+    assertNull(history.go(null, 1));
+    assertEquals("<p>1</p>", read(history.go(null, -1).toPage()));
+    assertNull(history.go(null, -2));
+  }
+
+  @Test
+  public void pagesFarFromTheCurrentPageAreCompressed() {
+    History history = new History(1024 * 1024, 1);
+    String html = compressible();
+    for (int i = 0; i < 4; i++) {
+      visit(history, "/" + i, html + i);
+    }
+    long raw = 2L * (PAGE_BYTES + 1);
+    assertTrue(String.valueOf(history.getBytes()), history.getBytes() > raw);
+    assertTrue(String.valueOf(history.getBytes()), history.getBytes() < raw + PAGE_BYTES / 8);
+  }
+
+  @Test
+  public void compressedPageIsInflatedWhenNavigatedBackTo() {
+    History history = new History(1024 * 1024, 0);
+    String html = compressible();
+    visit(history, "/0", html);
+    visit(history, "/1", "<p>1</p>");
+    assertTrue(String.valueOf(history.getBytes()), history.getBytes() < PAGE_BYTES / 8);
+    History.Entry back = history.go(null, -1);
+    assertEquals(html, read(back.toPage()));
+    assertEquals(html, read(back.toPage()));
+    history.moveTo(back, null);
+    assertTrue(String.valueOf(history.getBytes()), history.getBytes() < PAGE_BYTES / 8);
+    assertTrue(requests.isEmpty());
+  }
+
+  @Test
+  public void furthestPagesAreDiscardedOnceOverTheBound() {
+    History history = new History(5L * PAGE_BYTES / 2, 8);
+    for (int i = 0; i < 4; i++) {
+      visit(history, "/" + i, incompressible(i));
+    }
+    assertEquals(2L * PAGE_BYTES, history.getBytes());
+    assertEquals("requested /0", read(history.go(null, -3).toPage()));
+    assertEquals("requested /1", read(history.go(null, -2).toPage()));
+    assertEquals(incompressible(2), read(history.go(null, -1).toPage()));
+    assertEquals(2, requests.size());
+  }
+
+  @Test
+  public void currentPageIsKeptEvenWhenOverTheBound() {
+    History history = new History(PAGE_BYTES / 2, 8);
+    visit(history, "/0", incompressible(0));
+    assertEquals(PAGE_BYTES, history.getBytes());
+    visit(history, "/1", incompressible(1));
+    assertEquals(PAGE_BYTES, history.getBytes());
+    assertEquals("requested /0", read(history.go(null, -1).toPage()));
+  }
+
+  @Test
+  public void discardedCurrentPageIsRequestedAgain() {
+    History history = new History();
+    visit(history, "/1", "<p>1</p>");
+    visit(history, "/2", "<p>2</p>");
+    history.discardCurrent();
+    history.moveTo(history.go(null, -1), null);
+    assertEquals("requested /2", read(history.go(null, 1).toPage()));
+  }
+
+  @Test
+  public void pageIsRecordedOnceItHasBeenRead() throws IOException {
+    History history = new History();
+    HtmlPage page = new HtmlPage(URI.create("http://localhost/streamed"), resourceLogic);
+    try (ResourceContent content = page.open()) {
+      history.push(page);
+      assertEquals(0, history.getBytes());
+      readFully(content.getInputStream());
+    }
+    assertEquals("requested /streamed".length(), history.getBytes());
+    visit(history, "/next", "<p>next</p>");
+    assertEquals("requested /streamed", read(history.go(null, -1).toPage()));
+    assertEquals(1, requests.size());
+  }
+
+  /**
+   * The `visit` function records a page as the GUI does once the page has been read and displayed.
+   */
+  private HtmlPage visit(History history, String path, String html) {
+    HtmlPage page = new HtmlPage(
+        URI.create("http://localhost" + path),
+        resourceLogic,
+        new HtmlBody(
+            html.getBytes(StandardCharsets.ISO_8859_1),
+            "text/html",
+            StandardCharsets.ISO_8859_1
+        )
+    );
+    assertEquals(html, read(page));
+    history.push(page);
+    return page;
+  }
+
+  private static String read(HtmlPage page) {
+    try (ResourceContent content = page.open()) {
+      return new String(readFully(content.getInputStream()), content.getCharset());
+    } catch (IOException e) {
+      throw new RuntimeException("Unable to read " + page.getUri(), e);
+    }
+  }
+
+  private static byte[] readFully(InputStream in) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    byte[] buffer = new byte[8192];
+    for (int read; (read = in.read(buffer)) != -1;) {
+      out.write(buffer, 0, read);
+    }
+    return out.toByteArray();
+  }
+
+  private static String compressible() {
+    StringBuilder html = new StringBuilder();
+    while (html.length() < PAGE_BYTES) {
+      html.append("<p>row ").append(html.length() % 10).append("</p>");
+    }
+    return html.substring(0, PAGE_BYTES);
+  }
+
+  private static String incompressible(int seed) {
+    byte[] bytes = new byte[PAGE_BYTES];
+    new Random(seed).nextBytes(bytes);
+    return new String(bytes, StandardCharsets.ISO_8859_1);
+  }
+
+}
@@ -0,0 +1,164 @@
+package com.deadsimplegui.util.render;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import org.junit.Test;
+
+/**
+ * The `SanitizingReaderTest` class tests the `SanitizingReader` against a corpus of documents.
+ * Every document is read through buffers of several sizes, and from a reader that supplies a
+ * single character at a time, so that every tag is split across reads at every position.
+ */
+public class SanitizingReaderTest {
+  private static final String[][] CORPUS = {
+      //plain documents pass through unchanged
+      {"", ""},
+      {"<html><body>text</body></html>", "<html><body>text</body></html>"},
+      {"<p>a < b and <scripts> <metal> <s>x</s></p>", "<p>a < b and <scripts> <metal> <s>x</s></p>"},
+      //SCRIPT elements are removed
+      {"<p>a</p><script>alert(1);</script><p>b</p>", "<p>a</p><p>b</p>"},
+      {"a<script type=\"text/javascript\">x()</script>b", "ab"},
+      {"a<script src=\"x.js\"/>b", "a"},
+      {"a<script\nsrc=\"x.js\"></script>b", "ab"},
+      {"a<script>x</script >b", "ab"},
+      {"a<script>x</script\n>b", "ab"},
+      {"a<script>x</script>b<script>y</script>c", "abc"},
+      {"<<script>x</script>", "<"},
+      {"a<<<script>x</script>b", "a<<b"},
+      //tag names are matched case-insensitively
+      {"a<SCRIPT>x</SCRIPT>b", "ab"},
+      {"a<ScRiPt>x</sCrIpT>b", "ab"},
+      {"<HEAD><META charset=\"utf-8\"><Meta name=\"x\"></HEAD>", "<HEAD></HEAD>"},
+      //a script ends at the first end tag, even within a javascript string
+      {"a<script>var s = \"</script>\";</script>b", "a\";</script>b"},
+      {"a<script>var s = \"</scr\" + \"ipt>\";</script>b", "ab"},
+      {"a<script>var s = \"</script\" + \">\";</script>b", "ab"},
+      {"a<script>if (a</scriptb) {}</script>b", "ab"},
+      {"a<script>var s = '<script>';</script>b", "ab"},
+      //META elements are only removed within the HEAD element
+      {"<head><meta charset=\"utf-8\"></head><body>x</body>", "<head></head><body>x</body>"},
+      {"<head>\n<meta name=\"a\" content=\"b\">\n<title>t</title>\n</head>", "<head>\n\n<title>t</title>\n</head>"},
+      {"<head><meta/></head>", "<head></head>"},
+      {"<head><metadata></head>", "<head><metadata></head>"},
+      {"<body><meta name=\"a\"></body>", "<body><meta name=\"a\"></body>"},
+      {"<head></head><meta name=\"a\">", "<head></head><meta name=\"a\">"},
+      {"<head lang=\"en\"><meta name=\"a\"></head>", "<head lang=\"en\"></head>"},
+      //attributes containing a `>` do not end the element
+      {"<head><meta content=\"a>b\">c</head>", "<head>c</head>"},
+      {"<head><meta content='a>b' name=\"c\">d</head>", "<head>d</head>"},
+      {"<head><meta content=\"it's > 1\">x</head>", "<head>x</head>"},
+      {"a<script data-x=\"a>b\">x</script>b", "ab"},
+      //unterminated elements remove the rest of the document
+      {"a<script>x", "a"},
+      {"a<script", "a<script"},
+      {"a<script ", "a"},
+      {"a<scr", "a<scr"},
+      {"a<script>x</scri", "a"},
+      {"a<script>x</script", "a"},
+      {"a<script>x</script data=\"", "a"},
+      {"<head><meta name=\"a", "<head>"},
+      {"<head><meta", "<head><meta"},
+      {"<head><me", "<head><me"},
+      {"<head><meta content=\">", "<head>"},
+  };
+
+  @Test
+  public void corpusIsSanitizedWithABufferLargerThanTheDocument() throws IOException {
+    for (String[] document : CORPUS) {
+      assertEquals(document[0], document[1], read(new StringReader(document[0]), 16 * 1024));
+    }
+  }
+
+  @Test
+  public void corpusIsSanitizedWithSmallBuffers() throws IOException {
+    for (String[] document : CORPUS) {
+      for (int size = 1; size <= 7; size++) {
+        assertEquals(document[0] + " @" + size, document[1],
+            read(new StringReader(document[0]), size));
+      }
+    }
+  }
+
+  @Test
+  public void corpusIsSanitizedWhenReadOneCharacterAtATime() throws IOException {
+    for (String[] document : CORPUS) {
+      for (int size = 1; size <= 7; size++) {
+        assertEquals(document[0] + " @" + size, document[1],
+            read(new TricklingReader(document[0]), size));
+      }
+      assertEquals(document[0], document[1], readSingle(new TricklingReader(document[0])));
+    }
+  }
+
+  @Test
+  public void tagsAreRemovedAcrossTheInputBuffer() throws IOException {
+    StringBuilder padding = new StringBuilder();
+    for (int i = 0; i < 8192; i++) {
+      padding.append('x');
+    }
+    //the tags start from 16 characters before the end of the 8192 character input buffer
+    for (int offset = 0; offset < 16; offset++) {
+      String prefix = "<head>" + padding.substring(0, 8192 - 6 - 16 + offset);
+      String html = prefix + "<META name=\"a>\"><Script>x</script >" + "</head>";
+      String expected = prefix + "</head>";
+      assertEquals("@" + offset, expected, read(new StringReader(html), 4096));
+      assertEquals("@" + offset, expected, read(new StringReader(html), 3));
+    }
+  }
+
+  private static String read(Reader in, int size) throws IOException {
+    StringBuilder out = new StringBuilder();
+    try (SanitizingReader reader = new SanitizingReader(in)) {
+      char[] buffer = new char[size];
+      int read;
+      while ((read = reader.read(buffer, 0, buffer.length)) != -1) {
+        out.append(buffer, 0, read);
+      }
+    }
+    return out.toString();
+  }
+
+  private static String readSingle(Reader in) throws IOException {
+    StringBuilder out = new StringBuilder();
+    try (SanitizingReader reader = new SanitizingReader(in)) {
+      int c;
+      while ((c = reader.read()) != -1) {
+        out.append((char) c);
+      }
+    }
+    return out.toString();
+  }
+
+  /**
+   * The `TricklingReader` class exists to supply a single character per read, as a slow network
+   * connection might.
+   */
+  private static class TricklingReader extends Reader {
+    private final String text;
+    private int pos;
+
+    private TricklingReader(String text) {
+      this.text = text;
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) {
+      if (pos == text.length()) {
+        return -1;
+      }
+      if (len == 0) {
+        return 0;
+      }
+      cbuf[off] = text.charAt(pos++);
+      return 1;
+    }
+
+    @Override
+    public void close() {
+    }
+  }
+
+}
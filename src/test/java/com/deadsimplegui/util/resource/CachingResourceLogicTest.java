@@ -0,0 +1,215 @@
+package com.deadsimplegui.util.resource;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.deadsimplegui.util.metrics.Metrics;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * The `CachingResourceLogicTest` class tests the `CachingResourceLogic` against an HTTP server
+ * running within the test.
+ */
+public class CachingResourceLogicTest {
+  private static final String ETAG = "\"v1\"";
+  private static final String LAST_MODIFIED = "Mon, 05 Oct 2026 10:00:00 GMT";
+  private static final String HTML = "<html><body>cached</body></html>";
+  private static final byte[] BODY = HTML.getBytes(StandardCharsets.UTF_8);
+  private HttpServer server;
+  private File directory;
+  private CachingResourceLogic resourceLogic;
+  private final List<String> requests = Collections.synchronizedList(new ArrayList<>());
+
+  @Before
+  public void setUp() throws IOException {
+    server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    server.createContext("/etag", exchange -> {
+      String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+      requests.add("etag " + ifNoneMatch);
+      exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+      exchange.getResponseHeaders().set("ETag", ETAG);
+      if (ETAG.equals(ifNoneMatch)) {
+        notModified(exchange);
+      } else {
+        respond(exchange, BODY, BODY.length);
+      }
+    });
+    server.createContext("/last-modified", exchange -> {
+      String ifModifiedSince = exchange.getRequestHeaders().getFirst("If-Modified-Since");
+      requests.add("last-modified " + ifModifiedSince);
+      exchange.getResponseHeaders().set("Cache-Control", "max-age=0");
+      exchange.getResponseHeaders().set("Last-Modified", LAST_MODIFIED);
+      if (LAST_MODIFIED.equals(ifModifiedSince)) {
+        notModified(exchange);
+      } else {
+        respond(exchange, BODY, BODY.length);
+      }
+    });
+    server.createContext("/fresh", exchange -> {
+      requests.add("fresh");
+      exchange.getResponseHeaders().set("Cache-Control", "max-age=3600");
+      respond(exchange, BODY, BODY.length);
+    });
+    server.createContext("/vary", exchange -> {
+      requests.add("vary");
+      exchange.getResponseHeaders().set("Cache-Control", "max-age=3600");
+      exchange.getResponseHeaders().set("Vary", "Accept-Encoding, Accept-Language");
+      respond(exchange, BODY, BODY.length);
+    });
+    server.createContext("/large", exchange -> {
+      requests.add("large");
+      exchange.getResponseHeaders().set("Cache-Control", "max-age=3600");
+      respond(exchange, new byte[64 * 1024], 0);
+    });
+    server.createContext("/truncated", exchange -> {
+      requests.add("truncated");
+      exchange.getResponseHeaders().set("Cache-Control", "max-age=3600");
+      exchange.sendResponseHeaders(200, 64 * 1024);
+      OutputStream outputStream = exchange.getResponseBody();
+      outputStream.write(new byte[1024]);
+      outputStream.flush();
+      exchange.getHttpContext().getServer().stop(0);
+    });
+    server.start();
+    directory = Files.createTempDirectory("caching-resource-logic").toFile();
+    resourceLogic = new CachingResourceLogic(directory, 16 * 1024);
+  }
+
+  @After
+  public void tearDown() {
+    server.stop(0);
+    File[] files = directory.listFiles();
+    if (files != null) {
+      for (File file : files) {
+        file.delete();
+      }
+    }
+    directory.delete();
+  }
+
+  @Test
+  public void freshResponseIsServedFromDisk() {
+    assertEquals(HTML, get("/fresh"));
+    assertEquals(HTML, get("/fresh"));
+    assertEquals(Collections.singletonList("fresh"), requests);
+    assertEquals(1, resourceLogic.getHits());
+    assertEquals(1, resourceLogic.getMisses());
+  }
+
+  @Test
+  public void hitsAndMissesAreReportedThroughTheMetrics() {
+    long hits = Metrics.getCounters().getOrDefault("httpCache.hit", 0L);
+    long misses = Metrics.getCounters().getOrDefault("httpCache.miss", 0L);
+    long bytes = Metrics.getCounters().getOrDefault("httpCache.bytesFromCache", 0L);
+    get("/fresh");
+    get("/fresh");
+    assertEquals(hits + 1, (long) Metrics.getCounters().get("httpCache.hit"));
+    assertEquals(misses + 1, (long) Metrics.getCounters().get("httpCache.miss"));
+    assertEquals(bytes + BODY.length, (long) Metrics.getCounters().get("httpCache.bytesFromCache"));
+    assertTrue(Metrics.getGauges().get("httpCache.bytes") >= resourceLogic.getSize());
+  }
+
+  @Test
+  public void staleResponseIsRevalidatedWithItsETag() {
+    assertEquals(HTML, get("/etag"));
+    assertEquals(HTML, get("/etag"));
+    assertEquals(Arrays.asList("etag null", "etag " + ETAG), requests);
+    assertEquals(1, resourceLogic.getRevalidations());
+    assertEquals(BODY.length, resourceLogic.getBytesFromCache());
+  }
+
+  @Test
+  public void staleResponseIsRevalidatedWithItsLastModifiedDate() {
+    assertEquals(HTML, get("/last-modified"));
+    assertEquals(HTML, get("/last-modified"));
+    assertEquals(Arrays.asList("last-modified null", "last-modified " + LAST_MODIFIED), requests);
+    assertEquals(1, resourceLogic.getRevalidations());
+  }
+
+  @Test
+  public void revalidatedResponseSurvivesARelaunch() {
+    get("/etag");
+    resourceLogic = new CachingResourceLogic(directory, 16 * 1024);
+    assertEquals(HTML, get("/etag"));
+    assertEquals(1, resourceLogic.getRevalidations());
+  }
+
+  @Test
+  public void responseThatVariesIsNotStored() {
+    get("/vary");
+    get("/vary");
+    assertEquals(Arrays.asList("vary", "vary"), requests);
+    assertEquals(0, resourceLogic.getSize());
+  }
+
+  @Test
+  public void responseOfUnknownLengthLargerThanTheCacheIsReadOnce() {
+    assertEquals(64 * 1024, get("/large").length());
+    assertEquals(Collections.singletonList("large"), requests);
+    assertEquals(0, resourceLogic.getSize());
+    assertEquals(0, directory.listFiles((dir, name) -> name.endsWith(".tmp")).length);
+  }
+
+  @Test
+  public void responseIsReadOnceWhenTheCacheCannotBeWritten() throws IOException {
+    directory.delete();
+    Files.createFile(directory.toPath());
+    try {
+      assertEquals(HTML, get("/fresh"));
+      assertEquals(Collections.singletonList("fresh"), requests);
+      assertEquals(0, resourceLogic.getSize());
+    } finally {
+      directory.delete();
+      directory.mkdirs();
+    }
+  }
+
+  @Test
+  public void truncatedResponseIsNotStored() {
+    assertEquals(1024, get("/truncated").length());
+    assertEquals(Collections.singletonList("truncated"), requests);
+    assertEquals(0, resourceLogic.getSize());
+    assertEquals(0, directory.listFiles((dir, name) -> name.endsWith(".tmp")).length);
+  }
+
+  private String get(String path) {
+    URI uri = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + path);
+    return new String(resourceLogic.get(uri), StandardCharsets.UTF_8);
+  }
+
+  private static void notModified(HttpExchange exchange) throws IOException {
+    exchange.sendResponseHeaders(304, -1);
+    exchange.close();
+  }
+
+  private static void respond(HttpExchange exchange, byte[] body, long length) throws IOException {
+    try (InputStream in = exchange.getRequestBody()) {
+      while (in.read() != -1) {
+        //drain the request body
+      }
+    }
+    exchange.getResponseHeaders().set("Content-Type", "text/html; charset=UTF-8");
+    exchange.sendResponseHeaders(200, length);
+    try (OutputStream outputStream = exchange.getResponseBody()) {
+      outputStream.write(body);
+    }
+  }
+
+}
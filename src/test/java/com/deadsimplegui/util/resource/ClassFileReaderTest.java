@@ -0,0 +1,180 @@
+package com.deadsimplegui.util.resource;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.junit.Test;
+
+/**
+ * The `ClassFileReaderTest` class tests reading the annotations of compiled classes without
+ * loading them.
+ */
+public class ClassFileReaderTest {
+  private static final String MARKED = ClassFileReader.descriptorOf(Marked.class);
+
+  @Test
+  public void descriptorIsTheInternalName() {
+    assertEquals("Lcom/deadsimplegui/util/resource/UrlBinding;",
+        ClassFileReader.descriptorOf(UrlBinding.class));
+    assertEquals("Lcom/deadsimplegui/util/resource/ClassFileReaderTest$Marked;", MARKED);
+  }
+
+  @Test
+  public void annotatedClassIsFound() throws IOException {
+    assertTrue(isMarked(MarkedClass.class));
+  }
+
+  @Test
+  public void unannotatedClassIsNotFound() throws IOException {
+    assertFalse(isMarked(UnmarkedClass.class));
+  }
+
+  @Test
+  public void annotatedMembersDoNotMarkTheClass() throws IOException {
+    assertFalse(isMarked(MarkedMembers.class));
+  }
+
+  @Test
+  public void classOnlyRetainedAnnotationIsNotFound() throws IOException {
+    assertFalse(isAnnotatedWith(InvisibleClass.class, ClassFileReader.descriptorOf(Invisible.class)));
+  }
+
+  @Test
+  public void everyKindOfConstantIsSkipped() throws IOException {
+    assertTrue(isMarked(Constants.class));
+  }
+
+  @Test
+  public void everyKindOfElementValueIsSkipped() throws IOException {
+    assertTrue(isMarked(ElementValues.class));
+    assertTrue(isAnnotatedWith(ElementValues.class, ClassFileReader.descriptorOf(Values.class)));
+  }
+
+  @Test(expected = IOException.class)
+  public void otherFilesAreRejected() throws IOException {
+    ClassFileReader.isAnnotatedWith(new ByteArrayInputStream(new byte[] {1, 2, 3, 4, 5, 6, 7, 8}),
+        MARKED);
+  }
+
+  @Test
+  public void truncatedClassFileIsNeverMistakenForAnUnannotatedClass() {
+    byte[] classFile = bytesOf(MarkedClass.class);
+    for (int length = 0; length < classFile.length; length++) {
+      try {
+        //the annotation may be found before the end of the class file is reached
+        assertTrue("truncated to " + length, ClassFileReader.isAnnotatedWith(
+            new ByteArrayInputStream(Arrays.copyOf(classFile, length)), MARKED));
+      } catch (IOException e) {
+        //expected
+      }
+    }
+  }
+
+  private static boolean isMarked(Class<?> aClass) throws IOException {
+    return isAnnotatedWith(aClass, MARKED);
+  }
+
+  private static boolean isAnnotatedWith(Class<?> aClass, String descriptor) throws IOException {
+    return ClassFileReader.isAnnotatedWith(new ByteArrayInputStream(bytesOf(aClass)), descriptor);
+  }
+
+  private static byte[] bytesOf(Class<?> aClass) {
+    String name = aClass.getName().substring(aClass.getName().lastIndexOf('.') + 1) + ".class";
+    try (InputStream in = aClass.getResourceAsStream(name)) {
+      byte[] buffer = new byte[64 * 1024];
+      int length = 0;
+      int read;
+      while ((read = in.read(buffer, length, buffer.length - length)) != -1) {
+        length += read;
+      }
+      return Arrays.copyOf(buffer, length);
+    } catch (IOException e) {
+      throw new RuntimeException("Unable to read the class file of " + aClass.getName(), e);
+    }
+  }
+
+  @Retention(RetentionPolicy.RUNTIME)
+  @interface Marked {
+  }
+
+  @Retention(RetentionPolicy.CLASS)
+  @interface Invisible {
+  }
+
+  @Retention(RetentionPolicy.RUNTIME)
+  @interface Values {
+    String text();
+    int number();
+    long big();
+    double real();
+    char letter();
+    boolean flag();
+    Class<?> type();
+    TimeUnit unit();
+    Marked nested();
+    int[] numbers();
+    Marked[] annotations();
+  }
+
+  @Marked
+  private static class MarkedClass {
+  }
+
+  private static class UnmarkedClass {
+  }
+
+  private static class MarkedMembers {
+    @Marked
+    private Object field;
+
+    @Marked
+    private void method(@Marked Object parameter) {
+    }
+  }
+
+  @Invisible
+  private static class InvisibleClass {
+  }
+
+  @Marked
+  private static class Constants {
+    private static final long LONG = 1234567890123L;
+    private static final double DOUBLE = 3.25;
+    private static final float FLOAT = 1.5f;
+    private static final int INT = 123456789;
+    private long mutable = LONG;
+
+    private Supplier<String> supplier() {
+      mutable += INT;
+      return () -> "constant " + LONG + DOUBLE + FLOAT + mutable + String.class;
+    }
+  }
+
+  @Values(
+      text = "text",
+      number = 1,
+      big = 2L,
+      real = 3.0,
+      letter = 'c',
+      flag = true,
+      type = String.class,
+      unit = TimeUnit.SECONDS,
+      nested = @Marked,
+      numbers = {1, 2, 3},
+      annotations = {@Marked, @Marked}
+  )
+  @Deprecated
+  @Marked
+  private static class ElementValues {
+  }
+
+}
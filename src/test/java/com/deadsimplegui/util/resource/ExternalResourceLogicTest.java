@@ -0,0 +1,215 @@
+package com.deadsimplegui.util.resource;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * The `ExternalResourceLogicTest` class tests the `ExternalResourceLogic` against an HTTP server
+ * running within the test.
+ */
+public class ExternalResourceLogicTest {
+  private static final String HTML = "<html><body>h\u00e9llo w\u00f6rld</body></html>";
+  private HttpServer server;
+  private ExternalResourceLogic resourceLogic;
+  private final List<String> requestBodies = Collections.synchronizedList(new ArrayList<>());
+  private final Set<Integer> clientPorts = Collections.synchronizedSet(new HashSet<>());
+
+  @Before
+  public void setUp() throws IOException {
+    server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    server.createContext("/plain", exchange ->
+        respond(exchange, 200, "text/html; charset=UTF-8", null, utf8(HTML)));
+    server.createContext("/latin", exchange -> respond(
+        exchange,
+        200,
+        "text/html; charset=ISO-8859-1",
+        null,
+        HTML.getBytes(StandardCharsets.ISO_8859_1)
+    ));
+    server.createContext("/gzip", exchange ->
+        respond(exchange, 200, "text/html; charset=UTF-8", "gzip", gzip(utf8(HTML))));
+    server.createContext("/deflate", exchange ->
+        respond(exchange, 200, "text/html; charset=UTF-8", "deflate", deflate(utf8(HTML), false)));
+    server.createContext("/raw-deflate", exchange ->
+        respond(exchange, 200, "text/html; charset=UTF-8", "deflate", deflate(utf8(HTML), true)));
+    server.createContext("/form", exchange -> {
+      requestBodies.add(exchange.getRequestMethod() + " " + new String(
+          readAll(exchange.getRequestBody()), StandardCharsets.UTF_8));
+      respond(exchange, 200, "text/html; charset=UTF-8", null, utf8(HTML));
+    });
+    server.createContext("/slow", exchange -> {
+      try {
+        Thread.sleep(2000);
+      } catch (InterruptedException e) {
+        //swallow
+      }
+      respond(exchange, 200, "text/html; charset=UTF-8", null, utf8(HTML));
+    });
+    server.createContext("/missing", exchange ->
+        respond(exchange, 404, "text/html; charset=UTF-8", null, utf8("<p>not found</p>")));
+    server.createContext("/broken", exchange ->
+        respond(exchange, 500, "text/plain", null, utf8("broken")));
+    server.start();
+    resourceLogic = new ExternalResourceLogic(1000, 500);
+  }
+
+  @After
+  public void tearDown() {
+    server.stop(0);
+  }
+
+  @Test
+  public void getReusesTheConnection() {
+    for (int i = 0; i < 5; i++) {
+      assertEquals(HTML, new String(resourceLogic.get(uri("/plain")), StandardCharsets.UTF_8));
+    }
+    assertEquals(1, clientPorts.size());
+  }
+
+  @Test
+  public void getDecodesGzip() {
+    assertEquals(HTML, new String(resourceLogic.get(uri("/gzip")), StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void getDecodesZlibWrappedDeflate() {
+    assertEquals(HTML, new String(resourceLogic.get(uri("/deflate")), StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void getDecodesRawDeflate() {
+    assertEquals(HTML, new String(resourceLogic.get(uri("/raw-deflate")), StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void openReportsTheDeclaredCharset() throws IOException {
+    try (ResourceContent content = resourceLogic.open(uri("/latin"))) {
+      assertEquals(StandardCharsets.ISO_8859_1, content.getCharset());
+      assertArrayEquals(
+          HTML.getBytes(StandardCharsets.ISO_8859_1),
+          readAll(content.getInputStream())
+      );
+    }
+  }
+
+  @Test
+  public void postSendsTheFormBody() {
+    Map<String, String> params = new HashMap<>();
+    params.put("name", "a b&c");
+    resourceLogic.post(uri("/form"), params);
+    assertEquals(Collections.singletonList("POST name=a+b%26c"), requestBodies);
+  }
+
+  @Test
+  public void getTimesOut() {
+    try {
+      resourceLogic.get(uri("/slow"));
+      fail("the request should have timed out");
+    } catch (RuntimeException e) {
+      assertTrue(e.getCause() instanceof SocketTimeoutException);
+    }
+  }
+
+  @Test
+  public void getReturnsAnHtmlErrorPage() {
+    ExternalResponse response = resourceLogic.execute(uri("/missing"), null, Collections.emptyMap());
+    assertEquals(404, response.getStatusCode());
+    assertEquals(
+        "<p>not found</p>",
+        new String(resourceLogic.get(uri("/missing")), StandardCharsets.UTF_8)
+    );
+  }
+
+  @Test(expected = RuntimeException.class)
+  public void getFailsOnAnErrorThatIsNotHtml() {
+    resourceLogic.get(uri("/broken"));
+  }
+
+  @Test(expected = IOException.class)
+  public void readImageFailsOnAnErrorPage() throws IOException {
+    resourceLogic.readImage(uri("/missing"));
+  }
+
+  private URI uri(String path) {
+    return URI.create("http://127.0.0.1:" + server.getAddress().getPort() + path);
+  }
+
+  private void respond(
+      HttpExchange exchange,
+      int statusCode,
+      String contentType,
+      String contentEncoding,
+      byte[] body
+  ) throws IOException {
+    clientPorts.add(exchange.getRemoteAddress().getPort());
+    readAll(exchange.getRequestBody());
+    exchange.getResponseHeaders().set("Content-Type", contentType);
+    if (contentEncoding != null) {
+      exchange.getResponseHeaders().set("Content-Encoding", contentEncoding);
+    }
+    exchange.sendResponseHeaders(statusCode, body.length);
+    try (OutputStream outputStream = exchange.getResponseBody()) {
+      outputStream.write(body);
+    }
+  }
+
+  private static byte[] utf8(String value) {
+    return value.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static byte[] gzip(byte[] body) throws IOException {
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+    try (GZIPOutputStream outputStream = new GZIPOutputStream(compressed)) {
+      outputStream.write(body);
+    }
+    return compressed.toByteArray();
+  }
+
+  private static byte[] deflate(byte[] body, boolean raw) throws IOException {
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+    Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, raw);
+    try (DeflaterOutputStream outputStream = new DeflaterOutputStream(compressed, deflater)) {
+      outputStream.write(body);
+    } finally {
+      deflater.end();
+    }
+    return compressed.toByteArray();
+  }
+
+  private static byte[] readAll(InputStream inputStream) throws IOException {
+    ByteArrayOutputStream body = new ByteArrayOutputStream();
+    byte[] buffer = new byte[8192];
+    for (int read; (read = inputStream.read(buffer)) != -1;) {
+      body.write(buffer, 0, read);
+    }
+    return body.toByteArray();
+  }
+
+}
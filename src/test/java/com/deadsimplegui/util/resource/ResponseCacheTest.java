@@ -0,0 +1,161 @@
+package com.deadsimplegui.util.resource;
+
+import static org.junit.Assert.assertEquals;
+
+import com.deadsimplegui.util.resource.memoized.CountingPage;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * The `ResponseCacheTest` class tests keeping the renderings of `Memoize` pages, and that only GET
+ * requests are answered with a kept rendering.
+ */
+public class ResponseCacheTest {
+  private ResponseCache cache;
+  private AtomicInteger renders;
+
+  @Before
+  public void setUp() {
+    cache = new ResponseCache();
+    renders = new AtomicInteger();
+  }
+
+  @Test
+  public void pageThatIsNotMemoizedIsAlwaysRendered() {
+    PageFactory page = factory(PlainPage.class);
+    assertEquals("1", get(page, "/plain", params()));
+    assertEquals("2", get(page, "/plain", params()));
+    assertEquals(0, cache.getHits() + cache.getMisses());
+  }
+
+  @Test
+  public void renderingIsKeptForTheSameParameters() {
+    PageFactory page = factory(AllParamsPage.class);
+    assertEquals("1", get(page, "/all", params("a", "1")));
+    assertEquals("1", get(page, "/all", params("a", "1")));
+    assertEquals("2", get(page, "/all", params("a", "2")));
+    assertEquals("3", get(page, "/other", params("a", "1")));
+    assertEquals(1, cache.getHits());
+    assertEquals(3, cache.getMisses());
+    assertEquals(0.25, cache.getHitRate(), 0);
+  }
+
+  @Test
+  public void parametersAreNeverJoinedIntoTheSameKey() {
+    PageFactory page = factory(AllParamsPage.class);
+    assertEquals("1", get(page, "/all", params("a", "1&b=2")));
+    assertEquals("2", get(page, "/all", params("a", "1", "b", "2")));
+    assertEquals("3", get(page, "/all", params("a=1&b", "2")));
+    assertEquals("1", get(page, "/all", params("a", "1&b=2")));
+  }
+
+  @Test
+  public void renderingIsKeyedByTheDeclaredKeysOnly() {
+    PageFactory page = factory(KeyedPage.class);
+    assertEquals("1", get(page, "/keyed", params("id", "7", "page", "1")));
+    assertEquals("1", get(page, "/keyed", params("id", "7", "page", "2")));
+    assertEquals("1", get(page, "/keyed", params("id", "7")));
+    assertEquals("2", get(page, "/keyed", params("id", "8", "page", "1")));
+  }
+
+  @Test
+  public void missingKeyIsNotTheSameAsTheTextNull() {
+    PageFactory page = factory(KeyedPage.class);
+    assertEquals("1", get(page, "/keyed", params()));
+    assertEquals("2", get(page, "/keyed", params("id", "null")));
+    assertEquals("3", get(page, "/keyed", params("id", "")));
+    assertEquals("1", get(page, "/keyed", params("page", "1")));
+  }
+
+  @Test
+  public void leastRecentlyUsedRenderingIsEvicted() {
+    PageFactory page = factory(BoundedPage.class);
+    assertEquals("1", get(page, "/bounded", params("id", "1")));
+    assertEquals("2", get(page, "/bounded", params("id", "2")));
+    assertEquals("1", get(page, "/bounded", params("id", "1")));
+    assertEquals("3", get(page, "/bounded", params("id", "3")));
+    assertEquals("1", get(page, "/bounded", params("id", "1")));
+    assertEquals("4", get(page, "/bounded", params("id", "2")));
+  }
+
+  @Test
+  public void renderingsAreInvalidatedByPathPrefix() {
+    PageFactory page = factory(AllParamsPage.class);
+    assertEquals("1", get(page, "/orders/1", params()));
+    assertEquals("2", get(page, "/users/1", params()));
+    cache.invalidate("/orders/");
+    assertEquals("3", get(page, "/orders/1", params()));
+    assertEquals("2", get(page, "/users/1", params()));
+    cache.invalidateAll();
+    assertEquals("4", get(page, "/users/1", params()));
+  }
+
+  @Test
+  public void postIsNeverMemoized() throws URISyntaxException {
+    AnnotationScanner.registerPackage("com.deadsimplegui.util.resource.memoized", UrlBinding.class);
+    InternalResourceLogic resourceLogic = new InternalResourceLogic();
+    URI uri = new URI("http://localhost/memoized/counting?q=x");
+    int start = CountingPage.RENDERS.get();
+    String kept = html(resourceLogic.get(uri));
+    assertEquals("<p>" + (start + 1) + " x</p>", kept);
+    assertEquals(kept, html(resourceLogic.get(uri)));
+    Map<String, String> posted = Collections.singletonMap("q", "x");
+    assertEquals("<p>" + (start + 2) + " x</p>", html(resourceLogic.post(uri, posted)));
+    assertEquals("<p>" + (start + 3) + " x</p>", html(resourceLogic.post(uri, posted)));
+    assertEquals(kept, html(resourceLogic.get(uri)));
+    assertEquals(start + 3, CountingPage.RENDERS.get());
+    assertEquals(2, resourceLogic.getResponseCache().getHits());
+    assertEquals(1, resourceLogic.getResponseCache().getMisses());
+  }
+
+  private String get(PageFactory page, String path, Map<String, String> params) {
+    return html(cache.get(page, path, params,
+        () -> String.valueOf(renders.incrementAndGet()).getBytes(StandardCharsets.UTF_8)));
+  }
+
+  private static String html(byte[] bytes) {
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static Map<String, String> params(String... values) {
+    Map<String, String> params = new HashMap<>();
+    for (int i = 0; i < values.length; i += 2) {
+      params.put(values[i], values[i + 1]);
+    }
+    return params;
+  }
+
+  private static PageFactory factory(Class<? extends Page> pageClass) {
+    return new PageFactory("/test", pageClass, PageScope.REQUEST, 1);
+  }
+
+  private static class TestPage implements Page {
+    @Override
+    public String getHtml(Map<String, String> params) {
+      return "";
+    }
+  }
+
+  private static class PlainPage extends TestPage {
+  }
+
+  @Memoize
+  private static class AllParamsPage extends TestPage {
+  }
+
+  @Memoize(keys = "id")
+  private static class KeyedPage extends TestPage {
+  }
+
+  @Memoize(keys = "id", maxEntries = 2)
+  private static class BoundedPage extends TestPage {
+  }
+
+}
@@ -0,0 +1,172 @@
+package com.deadsimplegui.util.resource;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * The `RouteTrieTest` class tests matching paths against exact and template bindings.
+ */
+public class RouteTrieTest {
+  private RouteTrie routes;
+  private PageFactory index;
+  private PageFactory orders;
+  private PageFactory order;
+  private PageFactory newOrder;
+  private PageFactory line;
+  private PageFactory newOrderLines;
+
+  @Before
+  public void setUp() {
+    routes = new RouteTrie();
+    index = add("/index.html", IndexPage.class);
+    orders = add("/orders", OrdersPage.class);
+    order = add("/orders/{id}", OrderPage.class);
+    newOrder = add("/orders/new", NewOrderPage.class);
+    line = add("/orders/{id}/lines/{line}", LinePage.class);
+    newOrderLines = add("/orders/new/lines", NewOrderLinesPage.class);
+  }
+
+  @Test
+  public void exactPathIsMatched() {
+    assertMatch(index, Collections.emptyMap(), "/index.html");
+    assertMatch(orders, Collections.emptyMap(), "/orders");
+  }
+
+  @Test
+  public void variablesAreCaptured() {
+    assertMatch(order, Collections.singletonMap("id", "42"), "/orders/42");
+    Map<String, String> variables = new HashMap<>();
+    variables.put("id", "42");
+    variables.put("line", "7");
+    assertMatch(line, variables, "/orders/42/lines/7");
+  }
+
+  @Test
+  public void exactSegmentTakesPrecedenceOverVariable() {
+    assertMatch(newOrder, Collections.emptyMap(), "/orders/new");
+    assertMatch(newOrderLines, Collections.emptyMap(), "/orders/new/lines");
+  }
+
+  @Test
+  public void variableIsMatchedWhenTheExactSegmentLeadsNowhere() {
+    Map<String, String> variables = new HashMap<>();
+    variables.put("id", "new");
+    variables.put("line", "7");
+    assertMatch(line, variables, "/orders/new/lines/7");
+  }
+
+  @Test
+  public void valuesOfAbandonedMatchesAreNotCaptured() {
+    routes.add("/{a}/x/{b}", factory("/{a}/x/{b}", AbandonedPage.class));
+    routes.add("/{a}/{c}/y", factory("/{a}/{c}/y", OtherPage.class));
+    RouteMatch match = routes.find("/1/x/y");
+    assertEquals(AbandonedPage.class, match.getPageFactory().getPageClass());
+    Map<String, String> variables = new HashMap<>();
+    variables.put("a", "1");
+    variables.put("b", "y");
+    assertEquals(variables, match.getVariables());
+    match = routes.find("/1/2/y");
+    assertEquals(OtherPage.class, match.getPageFactory().getPageClass());
+    variables.clear();
+    variables.put("a", "1");
+    variables.put("c", "2");
+    assertEquals(variables, match.getVariables());
+  }
+
+  @Test
+  public void unboundPathIsNotMatched() {
+    assertNull(routes.find("/missing"));
+    assertNull(routes.find("/orders/42/lines"));
+    assertNull(routes.find("/orders/42/lines/7/8"));
+    assertNull(routes.find("/orders/"));
+  }
+
+  @Test
+  public void duplicateBindingIsRejected() {
+    assertDuplicate("/orders/{id}", NewOrderPage.class);
+    assertDuplicate("/orders/{other}", NewOrderPage.class);
+    assertDuplicate("/index.html", NewOrderPage.class);
+  }
+
+  @Test
+  public void variableMustBeAWholeSegment() {
+    try {
+      routes.add("/orders/id{id}", factory("/orders/id{id}", OtherPage.class));
+      fail("a partial segment variable was bound");
+    } catch (RuntimeException e) {
+      assertTrue(e.getMessage(), e.getMessage().contains("whole path segment"));
+    }
+  }
+
+  @Test
+  public void routesAreListedByBinding() {
+    assertEquals(6, routes.getRoutes().size());
+    assertSame(line, routes.getRoutes().get("/orders/{id}/lines/{line}"));
+  }
+
+  private void assertMatch(PageFactory expected, Map<String, String> variables, String path) {
+    RouteMatch match = routes.find(path);
+    assertSame(path, expected, match.getPageFactory());
+    assertEquals(path, variables, match.getVariables());
+  }
+
+  private void assertDuplicate(String binding, Class<? extends Page> pageClass) {
+    try {
+      routes.add(binding, factory(binding, pageClass));
+      fail(binding + " was bound twice");
+    } catch (RuntimeException e) {
+      assertTrue(e.getMessage(), e.getMessage().contains("are bound to path `" + binding + "`"));
+    }
+  }
+
+  private PageFactory add(String binding, Class<? extends Page> pageClass) {
+    PageFactory pageFactory = factory(binding, pageClass);
+    routes.add(binding, pageFactory);
+    return pageFactory;
+  }
+
+  private static PageFactory factory(String binding, Class<? extends Page> pageClass) {
+    return new PageFactory(binding, pageClass, PageScope.REQUEST, 1);
+  }
+
+  private static class TestPage implements Page {
+    @Override
+    public String getHtml(Map<String, String> params) {
+      return "";
+    }
+  }
+
+  private static class IndexPage extends TestPage {
+  }
+
+  private static class OrdersPage extends TestPage {
+  }
+
+  private static class OrderPage extends TestPage {
+  }
+
+  private static class NewOrderPage extends TestPage {
+  }
+
+  private static class LinePage extends TestPage {
+  }
+
+  private static class NewOrderLinesPage extends TestPage {
+  }
+
+  private static class AbandonedPage extends TestPage {
+  }
+
+  private static class OtherPage extends TestPage {
+  }
+
+}
@@ -0,0 +1,22 @@
+package com.deadsimplegui.util.resource.memoized;
+
+import com.deadsimplegui.util.resource.Memoize;
+import com.deadsimplegui.util.resource.Page;
+import com.deadsimplegui.util.resource.UrlBinding;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The `CountingPage` class exists to count how often a `Memoize` page is rendered.
+ */
+@UrlBinding("/memoized/counting")
+@Memoize
+public class CountingPage implements Page {
+  public static final AtomicInteger RENDERS = new AtomicInteger();
+
+  @Override
+  public String getHtml(Map<String, String> params) {
+    return "<p>" + RENDERS.incrementAndGet() + " " + params.get("q") + "</p>";
+  }
+
+}
@@ -0,0 +1,148 @@
+package com.deadsimplegui.util.template;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.Test;
+
+/**
+ * The `TemplateTest` class tests compiling templates and rendering them with a context.
+ */
+public class TemplateTest {
+
+  @Test
+  public void variablesAreEscaped() {
+    assertEquals("<p>&amp; &lt;b&gt; &quot;a&quot; &#39;b&#39; c</p>",
+        render("<p>{{text}}</p>", "text", "& <b> \"a\" 'b' c"));
+  }
+
+  @Test
+  public void rawVariablesAreNotEscaped() {
+    assertEquals("<p><b>&amp;</b></p>", render("<p>{{{text}}}</p>", "text", "<b>&amp;</b>"));
+  }
+
+  @Test
+  public void missingVariablesAreWrittenAsNothing() {
+    assertEquals("[]", render("[{{missing}}{{{missing}}}]", "text", "x"));
+  }
+
+  @Test
+  public void valuesAreWrittenWithToString() {
+    assertEquals("42 true", render("{{number}} {{flag}}", "number", 42, "flag", true));
+  }
+
+  @Test
+  public void dottedNamesAreLookedUpPartByPart() {
+    Map<String, Object> user = context("name", "Ada", "address", context("city", "London"));
+    assertEquals("Ada London []", render("{{user.name}} {{user.address.city}} [{{user.age.value}}]",
+        "user", user));
+  }
+
+  @Test
+  public void namesAreLookedUpInEnclosingContexts() {
+    assertEquals("a:x b:x ", render("{{#items}}{{name}}:{{suffix}} {{/items}}",
+        "items", Arrays.asList(context("name", "a"), context("name", "b")), "suffix", "x"));
+  }
+
+  @Test
+  public void sectionsRenderOncePerItem() {
+    String template = "{{#items}}<li>{{.}}</li>{{/items}}{{^items}}none{{/items}}";
+    assertEquals("<li>a</li><li>b</li>", render(template, "items", Arrays.asList("a", "b")));
+    assertEquals("none", render(template, "items", Collections.emptyList()));
+    assertEquals("<li>a</li><li>b</li>", render(template, "items", new String[] {"a", "b"}));
+    assertEquals("<li>1</li><li>2</li>", render(template, "items", new int[] {1, 2}));
+    assertEquals("none", render(template, "items", new String[0]));
+    assertEquals("none", render(template, "other", "x"));
+  }
+
+  @Test
+  public void booleanSectionsRenderInTheCurrentContext() {
+    String template = "{{#flag}}yes {{name}}{{/flag}}{{^flag}}no {{name}}{{/flag}}";
+    assertEquals("yes x", render(template, "flag", true, "name", "x"));
+    assertEquals("no x", render(template, "flag", false, "name", "x"));
+  }
+
+  @Test
+  public void otherValuesBecomeTheInnermostContext() {
+    String template = "{{#user}}{{name}}{{/user}}{{^user}}anonymous{{/user}}";
+    assertEquals("Ada", render(template, "user", context("name", "Ada")));
+    assertEquals("anonymous", render(template, "user", Collections.emptyMap()));
+  }
+
+  @Test
+  public void iterablesThatAreNotCollectionsAreIteratedOnce() {
+    assertEquals("ab", render("{{#items}}{{.}}{{/items}}", "items", once("a", "b")));
+    assertEquals("", render("{{#items}}{{.}}{{/items}}", "items", once()));
+    assertEquals("none", render("{{^items}}none{{/items}}", "items", once()));
+    assertEquals("", render("{{^items}}none{{/items}}", "items", once("a")));
+    String template = "{{#items}}{{.}}{{/items}}{{^items}}none{{/items}}";
+    assertEquals("ab", render(template, "items", once("a", "b")));
+    assertEquals("none", render(template, "items", once()));
+  }
+
+  @Test
+  public void commentsAreRemoved() {
+    assertEquals("ab", render("a{{! a comment }}b"));
+  }
+
+  @Test
+  public void unclosedTagIsRejected() {
+    assertRejected("a {{name", "Unclosed tag at offset 2");
+    assertRejected("a {{{name}}", "Unclosed tag at offset 2");
+  }
+
+  @Test
+  public void unclosedSectionIsRejected() {
+    assertRejected("{{#items}}{{.}}", "Unclosed section `items`");
+    assertRejected("{{#outer}}{{^inner}}{{/inner}}", "Unclosed section `outer`");
+  }
+
+  @Test
+  public void mismatchedClosingTagIsRejected() {
+    assertRejected("{{#items}}{{/other}}", "Unexpected closing tag `other` at offset 10");
+    assertRejected("{{#outer}}{{#inner}}{{/outer}}{{/inner}}", "Unexpected closing tag `outer`");
+    assertRejected("text{{/items}}", "Unexpected closing tag `items` at offset 4");
+  }
+
+  private static String render(String template, Object... values) {
+    return Template.compile(template).render(context(values));
+  }
+
+  private static Map<String, Object> context(Object... values) {
+    Map<String, Object> context = new HashMap<>();
+    for (int i = 0; i < values.length; i += 2) {
+      context.put((String) values[i], values[i + 1]);
+    }
+    return context;
+  }
+
+  private static void assertRejected(String template, String message) {
+    try {
+      Template.compile(template);
+      fail(template + " was compiled");
+    } catch (RuntimeException e) {
+      assertTrue(e.getMessage(), e.getMessage().contains(message));
+    }
+  }
+
+  /**
+   * The `once` function returns an iterable that fails when it is iterated more than once, like an
+   * iterable backed by a stream.
+   */
+  private static Iterable<Object> once(Object... items) {
+    AtomicBoolean iterated = new AtomicBoolean();
+    return () -> {
+      if (iterated.getAndSet(true)) {
+        throw new IllegalStateException("iterated twice");
+      }
+      return Arrays.asList(items).iterator();
+    };
+  }
+
+}